@@ -58,6 +58,11 @@ public interface Platform {
     @NotNull
     String getMinecraftVersion();
 
+    // The average milliseconds per tick, or -1 if the platform doesn't provide it
+    default double getAverageTickTime() {
+        return -1;
+    }
+
     @NotNull
     Component getTranslation(@NotNull Material material);
 
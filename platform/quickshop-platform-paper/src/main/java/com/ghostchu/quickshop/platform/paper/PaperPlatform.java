@@ -70,6 +70,11 @@ public class PaperPlatform implements Platform {
         return Bukkit.getMinecraftVersion();
     }
 
+    @Override
+    public double getAverageTickTime() {
+        return Bukkit.getServer().getAverageTickTime();
+    }
+
     @Override
     public @NotNull Component getTranslation(@NotNull Material material) {
         return Component.translatable(getTranslationKey(material));
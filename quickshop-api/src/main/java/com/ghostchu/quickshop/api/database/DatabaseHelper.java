@@ -9,6 +9,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -170,6 +171,17 @@ public interface DatabaseHelper {
     @NotNull
     SQLQuery selectAllMessages() throws SQLException;
 
+    /**
+     * Select the unique id and the last use username of all players that saved in the database
+     *
+     * @return Query result set
+     * @throws SQLException Any errors related to SQL Errors, {@link SQLFeatureNotSupportedException} if the implementation doesn't support it
+     */
+    @NotNull
+    default SQLQuery selectAllPlayers() throws SQLException {
+        throw new SQLFeatureNotSupportedException("selectAllPlayers is not supported by " + getClass().getName());
+    }
+
     /**
      * Select specific table content
      *
@@ -4,12 +4,40 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public interface PlayerFinder {
     @Nullable String uuid2Name(@NotNull UUID uuid);
 
+    /**
+     * Getting the name of the player without blocking the caller.
+     * The returned future is already completed if the name has been cached.
+     *
+     * @param uuid The player unique id
+     * @return The future of the player name, completed with null if the name cannot be found
+     */
+    @NotNull
+    default CompletableFuture<String> uuid2NameAsync(@NotNull UUID uuid) {
+        return CompletableFuture.supplyAsync(() -> uuid2Name(uuid));
+    }
+
     @NotNull UUID name2Uuid(@NotNull String name);
 
+    /**
+     * Getting the unique id of the player without blocking the caller.
+     * The returned future is already completed if the unique id has been cached.
+     *
+     * @param name The player name
+     * @return The future of the player unique id, completed with null if the player cannot be found
+     */
+    @NotNull
+    default CompletableFuture<UUID> name2UuidAsync(@NotNull String name) {
+        return CompletableFuture.supplyAsync(() -> {
+            UUID uuid = name2Uuid(name);
+            return uuid.equals(new UUID(0, 0)) ? null : uuid;
+        });
+    }
+
     void cache(@NotNull UUID uuid, @NotNull String name);
 
     boolean isCached(@NotNull UUID uuid);
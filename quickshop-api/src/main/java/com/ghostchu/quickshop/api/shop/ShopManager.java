@@ -126,6 +126,15 @@ public interface ShopManager {
      */
     @NotNull List<Shop> getAllShops();
 
+    /**
+     * Returns the amount of all shops, include unloaded, without collecting them.
+     *
+     * @return The amount of all shops
+     */
+    default int getShopCount() {
+        return getAllShops().size();
+    }
+
     /**
      * Get all loaded shops.
      *
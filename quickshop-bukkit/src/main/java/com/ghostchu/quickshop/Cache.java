@@ -1,32 +1,49 @@
 package com.ghostchu.quickshop;
 
 import com.ghostchu.quickshop.api.shop.Shop;
+import com.ghostchu.quickshop.shop.ShopBlockIndex;
 import com.ghostchu.quickshop.shop.SimpleShopManager;
-import com.google.common.cache.CacheBuilder;
+import com.ghostchu.quickshop.util.PackageUtil;
 import com.google.common.cache.CacheStats;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.lang.ref.WeakReference;
-import java.util.concurrent.TimeUnit;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * Cache is a utilities to quick access shops on large network with Caffeine Cache Library
+ * Cache is a utilities to quick access shops on large network.
+ * <p>
+ * The entries are keyed by the world unique id and the packed block position and stored in a fixed size,
+ * direct-mapped table, so a lookup never allocates or hashes a {@link Location}. A new entry simply replaces
+ * the one in its slot, which keeps the memory usage bounded.
  *
  * @author Ghost_chu
  */
 public class Cache {
+    private static final int[][] NEIGHBOURS = {{0, 0}, {1, 0}, {-1, 0}, {0, 1}, {0, -1}};
     private final QuickShop plugin;
-    private final com.google.common.cache.Cache<Location, BoxedShop> accessCaching = CacheBuilder
-            .newBuilder()
-            .initialCapacity(5000)
-            .expireAfterAccess(120, TimeUnit.MINUTES)
-            .recordStats()
-            .build();
+    private final AtomicReferenceArray<Entry> entries;
+    private final int mask;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
 
     public Cache(QuickShop plugin) {
         this.plugin = plugin;
+        // Round up to the power of two
+        int capacity = Integer.highestOneBit(Math.max(1024, PackageUtil.parsePackageProperly("shopCacheSize").asInteger(16384)) - 1) << 1;
+        this.entries = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    private static int slot(@NotNull UUID world, long position, boolean attached, int mask) {
+        long h = (position ^ world.getLeastSignificantBits()) * 0x9E3779B97F4A7C15L;
+        int hash = (int) (h ^ (h >>> 32));
+        return ((hash << 1) | (attached ? 1 : 0)) & mask;
     }
 
     /**
@@ -38,21 +55,36 @@ public class Cache {
      */
     @Nullable
     public Shop find(@NotNull Location location, boolean attached) {
-        BoxedShop boxedShop = accessCaching.getIfPresent(location);
+        SimpleShopManager shopManager = (SimpleShopManager) plugin.getShopManager();
+        // Fast path: nothing here, don't touch the caching or the block state
+        if (!shopManager.getShopBlockIndex().mayContainShop(location)) {
+            return null;
+        }
+        World world = location.getWorld();
+        if (world == null) {
+            return null;
+        }
+        UUID worldId = world.getUID();
+        long position = ShopBlockIndex.pack(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+        int slot = slot(worldId, position, attached, mask);
+        Entry entry = entries.get(slot);
+        if (entry != null && entry.matches(worldId, position, attached) && entry.isValid()) {
+            //Cache is valid
+            hitCount.increment();
+            return entry.shop;
+        }
         //Cache is invalid, generated a new one
-        if (boxedShop == null || !boxedShop.isValid()) {
-            Shop shop;
-            if (attached) {
-                shop = ((SimpleShopManager) plugin.getShopManager()).findShopIncludeAttached(location, false);
-            } else {
-                shop = plugin.getShopManager().getShop(location);
-            }
-            setCache(location, shop);
-            return shop;
+        missCount.increment();
+        Shop shop;
+        if (attached) {
+            shop = shopManager.findShopIncludeAttached(location, false);
         } else {
-            //Cache is valid
-            return boxedShop.getShop();
+            shop = shopManager.getShop(location);
         }
+        if (shop != null) {
+            put(slot, new Entry(worldId, position, attached, shop));
+        }
+        return shop;
     }
 
     /**
@@ -62,47 +94,107 @@ public class Cache {
      * @param shop     null for invalidate and Shop object for update
      */
     public void setCache(@NotNull Location location, @Nullable Shop shop) {
-        accessCaching.put(location, new BoxedShop(shop));
+        World world = location.getWorld();
+        if (world == null) {
+            return;
+        }
+        if (shop == null) {
+            invalidate(location);
+            return;
+        }
+        UUID worldId = world.getUID();
+        long position = ShopBlockIndex.pack(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+        put(slot(worldId, position, true, mask), new Entry(worldId, position, true, shop));
+    }
+
+    private void put(int slot, @NotNull Entry entry) {
+        Entry previous = entries.getAndSet(slot, entry);
+        if (previous != null && !previous.matches(entry.world, entry.position, entry.attached)) {
+            evictionCount.increment();
+        }
     }
 
     public @NotNull CacheStats getStats() {
-        return accessCaching.stats();
+        return new CacheStats(hitCount.sum(), missCount.sum(), 0, 0, 0, evictionCount.sum());
+    }
+
+    /**
+     * Getting the amount of slots in this caching
+     *
+     * @return The capacity
+     */
+    public int getCapacity() {
+        return entries.length();
+    }
+
+    /**
+     * Getting the amount of used slots in this caching
+     *
+     * @return The amount of used slots
+     */
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < entries.length(); i++) {
+            if (entries.get(i) != null) {
+                size++;
+            }
+        }
+        return size;
     }
 
     public void invalidate(@NotNull Location location) {
-        accessCaching.invalidate(location);
+        World world = location.getWorld();
+        if (world == null) {
+            return;
+        }
+        invalidate(world.getUID(), location.getBlockX(), location.getBlockY(), location.getBlockZ());
     }
 
-    public void invalidateAll() {
-        accessCaching.invalidateAll();
+    /**
+     * Invalidate the caching of a shop container, include the blocks that may attach to it (double chest, signs).
+     * Call it when a shop created, deleted or moved.
+     *
+     * @param location The shop location
+     */
+    public void invalidateShop(@NotNull Location location) {
+        World world = location.getWorld();
+        if (world == null) {
+            return;
+        }
+        UUID worldId = world.getUID();
+        for (int[] offset : NEIGHBOURS) {
+            invalidate(worldId, location.getBlockX() + offset[0], location.getBlockY(), location.getBlockZ() + offset[1]);
+        }
     }
 
+    private void invalidate(@NotNull UUID worldId, int x, int y, int z) {
+        long position = ShopBlockIndex.pack(x, y, z);
+        invalidate(worldId, position, true);
+        invalidate(worldId, position, false);
+    }
 
-    private static class BoxedShop {
-        @Nullable
-        private final WeakReference<Shop> shopWeakRef;
+    private void invalidate(@NotNull UUID worldId, long position, boolean attached) {
+        int slot = slot(worldId, position, attached, mask);
+        Entry entry = entries.get(slot);
+        if (entry != null && entry.matches(worldId, position, attached)) {
+            entries.compareAndSet(slot, entry, null);
+        }
+    }
 
-        public BoxedShop(Shop shop) {
-            if (shop != null) {
-                this.shopWeakRef = new WeakReference<>(shop);
-            } else {
-                shopWeakRef = null;
-            }
+    public void invalidateAll() {
+        for (int i = 0; i < entries.length(); i++) {
+            entries.set(i, null);
         }
+    }
 
-        @Nullable
-        public Shop getShop() {
-            return shopWeakRef == null ? null : shopWeakRef.get();
+    private record Entry(@NotNull UUID world, long position, boolean attached, @NotNull Shop shop) {
+        private boolean matches(@NotNull UUID world, long position, boolean attached) {
+            return this.position == position && this.attached == attached && this.world.equals(world);
         }
 
-        public boolean isValid() {
-            if (shopWeakRef != null) {
-                Shop shop = shopWeakRef.get();
-                if (shop != null) {
-                    return shop.isValid();
-                }
-            }
-            return false;
+        private boolean isValid() {
+            // Negative results are never cached, a chest placed next to a shop may become a part of it at any time
+            return shop.isValid();
         }
     }
 }
@@ -25,7 +25,6 @@ import com.ghostchu.quickshop.bstats.MetricsManager;
 import com.ghostchu.quickshop.command.QuickShopCommand;
 import com.ghostchu.quickshop.command.SimpleCommandManager;
 import com.ghostchu.quickshop.common.util.CommonUtil;
-import com.ghostchu.quickshop.common.util.JsonUtil;
 import com.ghostchu.quickshop.common.util.QuickExecutor;
 import com.ghostchu.quickshop.common.util.Timer;
 import com.ghostchu.quickshop.database.HikariUtil;
@@ -36,6 +35,7 @@ import com.ghostchu.quickshop.economy.Economy_Vault;
 import com.ghostchu.quickshop.listener.*;
 import com.ghostchu.quickshop.localization.text.SimpleTextManager;
 import com.ghostchu.quickshop.metric.MetricListener;
+import com.ghostchu.quickshop.metric.PrometheusExporter;
 import com.ghostchu.quickshop.papi.QuickShopPAPI;
 import com.ghostchu.quickshop.permission.PermissionManager;
 import com.ghostchu.quickshop.platform.Platform;
@@ -55,6 +55,7 @@ import com.ghostchu.quickshop.util.matcher.item.BukkitItemMatcherImpl;
 import com.ghostchu.quickshop.util.matcher.item.QuickShopItemMatcherImpl;
 import com.ghostchu.quickshop.util.paste.PasteManager;
 import com.ghostchu.quickshop.util.performance.PerfMonitor;
+import com.ghostchu.quickshop.util.performance.TickTimings;
 import com.ghostchu.quickshop.util.reporter.error.RollbarErrorReporter;
 import com.ghostchu.quickshop.util.updater.NexusManager;
 import com.ghostchu.quickshop.watcher.*;
@@ -84,6 +85,7 @@ import org.slf4j.Logger;
 import java.io.File;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
 
 public class QuickShop implements QuickShopAPI, Reloadable {
     /**
@@ -194,8 +196,13 @@ public class QuickShop implements QuickShopAPI, Reloadable {
     @Getter
     private OngoingFeeWatcher ongoingFeeWatcher;
     @Getter
+    @Nullable
+    private DisplayCheckWatcher displayCheckWatcher;
+    @Getter
     private SignUpdateWatcher signUpdateWatcher;
     @Getter
+    private PrometheusExporter metricsExporter;
+    @Getter
     private Cache shopCache;
     @Getter
     private boolean allowStack;
@@ -417,8 +424,12 @@ public class QuickShop implements QuickShopAPI, Reloadable {
         if (StringUtils.isEmpty(this.currency)) {
             this.currency = null;
         }
+        if (logWatcher != null) {
+            logWatcher.close();
+        }
         if (this.getConfig().getBoolean("logging.enable")) {
             logWatcher = new LogWatcher(this, new File(javaPlugin.getDataFolder(), "qs.log"));
+            logWatcher.start();
         } else {
             logWatcher = null;
         }
@@ -515,7 +526,7 @@ public class QuickShop implements QuickShopAPI, Reloadable {
             return;
         }
         if (loggingLocation == 0) {
-            this.getLogWatcher().log(JsonUtil.getGson().toJson(eventObject));
+            this.getLogWatcher().logEvent(eventObject);
         } else {
             getDatabaseHelper().insertHistoryRecord(eventObject)
                     .whenComplete((result, throwable) -> {
@@ -597,7 +608,7 @@ public class QuickShop implements QuickShopAPI, Reloadable {
             logger.error("Shop find distance is too high with chunk loading feature turned on! It may cause lag! Pick a number below 100!");
         }
         setupShopCaches();
-        signUpdateWatcher = new SignUpdateWatcher();
+        signUpdateWatcher = new SignUpdateWatcher(this);
         //shopContainerWatcher = new ShopContainerWatcher();
         shopSaveWatcher = new ShopDataSaveWatcher(this);
         shopSaveWatcher.runTaskTimerAsynchronously(javaPlugin, 0, 20L * 60L * 5L);
@@ -688,10 +699,13 @@ public class QuickShop implements QuickShopAPI, Reloadable {
 
     private void registerDisplayAutoDespawn() {
         if (this.display && getConfig().getBoolean("shop.display-auto-despawn")) {
+            if (this.displayAutoDespawnWatcher != null) {
+                // Already watching, the range will be updated by itself
+                return;
+            }
             this.displayAutoDespawnWatcher = new DisplayAutoDespawnWatcher(this);
             //BUKKIT METHOD SHOULD ALWAYS EXECUTE ON THE SERVER MAIN THEAD
-            this.displayAutoDespawnWatcher.runTaskTimer(javaPlugin, 20, getConfig().getInt("shop.display-check-time")); // not worth async
-            logger.warn("Unrecommended use of display-auto-despawn. This feature may have a heavy impact on the server's performance!");
+            this.displayAutoDespawnWatcher.start();
         } else {
             if (this.displayAutoDespawnWatcher != null) {
                 this.displayAutoDespawnWatcher.cancel();
@@ -715,31 +729,38 @@ public class QuickShop implements QuickShopAPI, Reloadable {
     }
 
     private void bakeShopsOwnerCache() {
+        Set<UUID> players = new HashSet<>();
+        this.shopManager.getAllShops().forEach(shop -> {
+            players.add(shop.getOwner());
+            players.addAll(shop.getPermissionAudiences().keySet());
+        });
+        if (this.playerFinder instanceof FastPlayerFinder fastPlayerFinder) {
+            logger.info("Loading player names from database...");
+            logger.info("Loaded {} player names from database.", fastPlayerFinder.loadFromDatabase());
+        }
         if (PackageUtil.parsePackageProperly("bakeuuids").asBoolean()) {
             logger.info("Baking shops owner and moderators caches (This may take a while if you upgrade from old versions)...");
-            Set<UUID> waitingForBake = new HashSet<>();
-            this.shopManager.getAllShops().forEach(shop -> {
-                if (!this.playerFinder.isCached(shop.getOwner())) {
-                    waitingForBake.add(shop.getOwner());
+            List<UUID> waitingForBake = new ArrayList<>();
+            for (UUID player : players) {
+                if (!this.playerFinder.isCached(player)) {
+                    waitingForBake.add(player);
                 }
-                shop.getPermissionAudiences().keySet().forEach(audience -> {
-                    if (!this.playerFinder.isCached(audience)) {
-                        waitingForBake.add(audience);
-                    }
-                });
-            });
-
+            }
             if (waitingForBake.isEmpty()) {
                 return;
             }
             logger.info("Resolving {} player UUID and Name mappings...", waitingForBake.size());
-            waitingForBake.forEach(uuid -> {
-                String name = playerFinder.uuid2Name(uuid);
-                if (name == null) {
-                    return;
-                }
-                logger.info("Resolved: {} ({}), {} jobs remains.", uuid, name, (waitingForBake.size() - 1));
-            });
+            // Resolve in parallel, but don't flood the lookup sources
+            int batchSize = 16;
+            for (int i = 0; i < waitingForBake.size(); i += batchSize) {
+                List<UUID> batch = waitingForBake.subList(i, Math.min(i + batchSize, waitingForBake.size()));
+                CompletableFuture.allOf(batch.stream()
+                                .map(this.playerFinder::uuid2NameAsync)
+                                .toArray(CompletableFuture[]::new))
+                        .handle((v, throwable) -> null)
+                        .join();
+                logger.info("Resolved {} of {} player UUID and Name mappings.", i + batch.size(), waitingForBake.size());
+            }
         }
     }
 
@@ -753,6 +774,9 @@ public class QuickShop implements QuickShopAPI, Reloadable {
         new CustomInventoryListener(this).register();
         new ShopProtectionListener(this, this.shopCache).register();
         new MetricListener(this).register();
+        this.metricsExporter = new PrometheusExporter(this);
+        this.metricsExporter.register();
+        this.metricsExporter.start();
         new InternalListener(this).register();
         if (Util.checkIfBungee()) {
             this.bungeeListener = new BungeeListener(this);
@@ -767,15 +791,11 @@ public class QuickShop implements QuickShopAPI, Reloadable {
                     logger.error("Shop.display-items-check-ticks is too low! It may cause HUGE lag! Pick a number > 3000");
                 }
                 logger.info("Registering DisplayCheck task....");
-                Bukkit.getScheduler().runTaskTimer(javaPlugin, () -> {
-                    for (Shop shop : getShopManager().getLoadedShops()) {
-                        //Shop may be deleted or unloaded when iterating
-                        if (shop.isDeleted() || !shop.isLoaded()) {
-                            continue;
-                        }
-                        shop.checkDisplay();
-                    }
-                }, 1L, getDisplayItemCheckTicks());
+                if (this.displayCheckWatcher != null) {
+                    this.displayCheckWatcher.cancel();
+                }
+                this.displayCheckWatcher = new DisplayCheckWatcher(this);
+                this.displayCheckWatcher.runTaskTimer(javaPlugin, 1L, 1L);
             } else if (getDisplayItemCheckTicks() == 0) {
                 logger.info("shop.display-items-check-ticks was set to 0. Display Check has been disabled");
             } else {
@@ -810,10 +830,10 @@ public class QuickShop implements QuickShopAPI, Reloadable {
     private void registerTasks() {
         calendarWatcher = new CalendarWatcher(this);
         // shopVaildWatcher.runTaskTimer(this, 0, 20 * 60); // Nobody use it
-        signUpdateWatcher.runTaskTimer(javaPlugin, 0, 10);
+        signUpdateWatcher.runTaskTimer(javaPlugin, 0, 1);
+        Bukkit.getScheduler().runTaskTimer(javaPlugin, TickTimings::tick, 1, 1);
         //shopContainerWatcher.runTaskTimer(this, 0, 5); // Nobody use it
         if (logWatcher != null) {
-            logWatcher.runTaskTimerAsynchronously(javaPlugin, 10, 10);
             logger.info("Log actions is enabled. Actions will be logged in the qs.log file!");
         }
         this.registerOngoingFee();
@@ -961,6 +981,10 @@ public class QuickShop implements QuickShopAPI, Reloadable {
             logger.info("Cleaning up display manager...");
             VirtualDisplayItem.VirtualDisplayItemManager.unload();
         }
+        if (metricsExporter != null) {
+            logger.info("Stopping metrics exporter...");
+            metricsExporter.stop();
+        }
         if (logWatcher != null) {
             logger.info("Stopping log watcher...");
             logWatcher.close();
@@ -400,7 +400,8 @@ public class SimpleCommandManager implements CommandManager, TabCompleter, Comma
                     return true;
                 }
                 Log.debug("Execute container: " + container.getPrefix() + " - " + cmdArg[0]);
-                try (PerfMonitor ignored = new PerfMonitor("Execute command " + container.getPrefix() + " " + CommonUtil.array2String(passThroughArgs), Duration.of(2, ChronoUnit.SECONDS))) {
+                try (PerfMonitor perf = new PerfMonitor("Execute command", Duration.of(2, ChronoUnit.SECONDS))) {
+                    perf.setContext(container.getPrefix());
                     container.getExecutor().onCommand(capture(sender), commandLabel, passThroughArgs);
                 }
                 return true;
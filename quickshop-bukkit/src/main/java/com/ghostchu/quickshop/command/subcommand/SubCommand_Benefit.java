@@ -14,6 +14,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Collections;
 import java.util.List;
@@ -62,7 +63,10 @@ public class SubCommand_Benefit implements CommandHandler<Player> {
             plugin.text().of(sender, "command-incorrect", "/qs benefit <add/remove> <player> <percentage>").send();
             return;
         }
-        UUID uuid = plugin.getPlayerFinder().name2Uuid(cmdArg[1]);
+        plugin.getPlayerFinder().name2UuidAsync(cmdArg[1]).thenAccept(uuid -> Util.mainThreadRun(() -> addBenefit(sender, shop, cmdArg, uuid)));
+    }
+
+    private void addBenefit(Player sender, Shop shop, String[] cmdArg, @Nullable UUID uuid) {
         if (uuid == null) {
             plugin.text().of(sender, "unknown-player", cmdArg[1]).send();
             return;
@@ -108,7 +112,10 @@ public class SubCommand_Benefit implements CommandHandler<Player> {
             plugin.text().of(sender, "command-incorrect", "/qs benefit <add/remove/query> <player> <percentage>").send();
             return;
         }
-        UUID uuid = plugin.getPlayerFinder().name2Uuid(cmdArg[1]);
+        plugin.getPlayerFinder().name2UuidAsync(cmdArg[1]).thenAccept(uuid -> Util.mainThreadRun(() -> removeBenefit(sender, shop, cmdArg, uuid)));
+    }
+
+    private void removeBenefit(Player sender, Shop shop, String[] cmdArg, @Nullable UUID uuid) {
         if (uuid == null) {
             plugin.text().of(sender, "unknown-player", cmdArg[1]).send();
             return;
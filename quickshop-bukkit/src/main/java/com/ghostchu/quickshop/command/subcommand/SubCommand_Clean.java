@@ -7,6 +7,7 @@ import com.ghostchu.quickshop.shop.ContainerShop;
 import com.ghostchu.quickshop.util.MsgUtil;
 import com.ghostchu.quickshop.util.Util;
 import com.ghostchu.quickshop.util.logging.container.ShopRemoveLog;
+import com.ghostchu.quickshop.util.performance.BatchBukkitExecutor;
 import org.bukkit.command.CommandSender;
 import org.jetbrains.annotations.NotNull;
 
@@ -47,13 +48,19 @@ public class SubCommand_Clean implements CommandHandler<CommandSender> {
             }
         }
 
-        for (Shop shop : pendingRemoval) {
+        final int cleaned = i;
+        BatchBukkitExecutor<Shop> cleanExecutor = new BatchBukkitExecutor<>(15, BatchBukkitExecutor.Priority.HIGH);
+        cleanExecutor.addTasks(pendingRemoval);
+        cleanExecutor.startHandle(plugin.getJavaPlugin(), shop -> {
+            if (shop.isDeleted()) {
+                return;
+            }
             plugin.logEvent(new ShopRemoveLog(Util.getSenderUniqueId(sender), "/qs clean", shop.saveToInfoStorage()));
             shop.delete();
-        }
-
-        MsgUtil.clean();
-        plugin.text().of(sender, "command.cleaned", i).send();
+        }, () -> {
+            MsgUtil.clean();
+            plugin.text().of(sender, "command.cleaned", cleaned).send();
+        });
     }
 
 
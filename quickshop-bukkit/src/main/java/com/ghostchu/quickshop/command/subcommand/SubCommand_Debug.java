@@ -6,6 +6,9 @@ import com.ghostchu.quickshop.api.shop.Shop;
 import com.ghostchu.quickshop.util.MsgUtil;
 import com.ghostchu.quickshop.util.Util;
 import com.ghostchu.quickshop.util.performance.BatchBukkitExecutor;
+import com.ghostchu.quickshop.util.performance.PerfMonitor;
+import com.ghostchu.quickshop.util.performance.PerfTimer;
+import com.ghostchu.quickshop.util.performance.TickTimings;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
@@ -45,10 +48,54 @@ public class SubCommand_Debug implements CommandHandler<CommandSender> {
             case "force-shoploader-reload" -> handleShopsLoaderReload(sender, ArrayUtils.remove(cmdArg, 0));
             case "check-shop-status" -> handleShopDebug(sender, ArrayUtils.remove(cmdArg, 0));
             case "toggle-shop-load-status" -> handleShopLoading(sender, ArrayUtils.remove(cmdArg, 0));
+            case "perf" -> handlePerf(sender, ArrayUtils.remove(cmdArg, 0));
+            case "ticks" -> handleTicks(sender);
             default -> plugin.text().of(sender, "debug.arguments-invalid", cmdArg[0]).send();
         }
     }
 
+    private void handlePerf(@NotNull CommandSender sender, @NotNull String[] cmdArg) {
+        if (cmdArg.length > 0) {
+            switch (cmdArg[0]) {
+                case "on" -> {
+                    PerfMonitor.setProfiling(true);
+                    plugin.text().of(sender, "debug.perf-enabled").send();
+                }
+                case "off" -> {
+                    PerfMonitor.setProfiling(false);
+                    plugin.text().of(sender, "debug.perf-disabled").send();
+                }
+                case "reset" -> {
+                    PerfMonitor.resetTimers();
+                    plugin.text().of(sender, "debug.perf-reset").send();
+                }
+                default -> plugin.text().of(sender, "debug.arguments-invalid", cmdArg[0]).send();
+            }
+            return;
+        }
+        List<PerfTimer> timers = PerfMonitor.getTimers();
+        plugin.text().of(sender, "debug.perf-header", PerfMonitor.isProfiling(), timers.size()).send();
+        for (PerfTimer timer : timers) {
+            plugin.text().of(sender, "debug.perf-entry", timer.getName(), timer.getCount(),
+                    PerfTimer.format(timer.getPercentileNanos(0.5D)),
+                    PerfTimer.format(timer.getPercentileNanos(0.99D)),
+                    PerfTimer.format(timer.getMaxNanos())).send();
+        }
+    }
+
+    private void handleTicks(@NotNull CommandSender sender) {
+        List<TickTimings.Section> sections = TickTimings.getSections();
+        plugin.text().of(sender, "debug.ticks-header", sections.size()).send();
+        for (TickTimings.Section section : sections) {
+            long average = section.getAverageNanosPerTick(TickTimings.WINDOW_TICKS);
+            plugin.text().of(sender, "debug.ticks-entry", section.getName(),
+                    PerfTimer.format(section.getAverageNanosPerTick(TickTimings.SHORT_WINDOW_TICKS)),
+                    PerfTimer.format(average),
+                    PerfTimer.format(section.getPeakNanosPerTick(TickTimings.WINDOW_TICKS)),
+                    String.format("%.2f%%", average * 100.0D / TickTimings.TICK_NANOS)).send();
+        }
+    }
+
     private void handleShopLoading(CommandSender sender, String[] remove) {
         Shop shop = getLookingShop(sender);
         if (shop == null) {
@@ -155,7 +202,7 @@ public class SubCommand_Debug implements CommandHandler<CommandSender> {
             updateExecutor.addTasks(shops);
             updateExecutor.startHandle(plugin.getJavaPlugin(), Shop::setSignText, () -> {
                 long usedTime = updateExecutor.getStartTime().until(Instant.now(), java.time.temporal.ChronoUnit.MILLIS);
-                plugin.text().of(sender, "debug.update-player-shops-complete", usedTime);
+                plugin.text().of(sender, "debug.update-player-shops-complete", usedTime).send();
             });
             plugin.text().of(sender, "debug.update-player-shops-task-started", shops.size()).send();
         });
@@ -61,30 +61,7 @@ public class SubCommand_Permission implements CommandHandler<Player> {
                     plugin.text().of(sender, "bad-command-usage-detailed", "set,list,unset").send();
                     return;
                 }
-                UUID uuid = plugin.getPlayerFinder().name2Uuid(target);
-                if (uuid == null) {
-                    plugin.text().of(sender, "unknown-player", target).send();
-                    return;
-                }
-
-                switch (operation) {
-                    case "set" -> {
-                        if (group == null) {
-                            plugin.text().of(sender, "command-incorrect", "/qs permission user set <group>").send();
-                            return;
-                        }
-                        if (!plugin.getShopPermissionManager().hasGroup(group)) {
-                            plugin.text().of(sender, "invalid-group", target).send();
-                            return;
-                        }
-                        shop.setPlayerGroup(uuid, group);
-                        plugin.text().of(sender, "successfully-set-player-group", target, group).send();
-                    }
-                    case "unset" -> {
-                        shop.setPlayerGroup(uuid, BuiltInShopPermissionGroup.EVERYONE);
-                        plugin.text().of(sender, "successfully-unset-player-group", target).send();
-                    }
-                }
+                handleUser(sender, shop, operation, target, group);
             }
             case "group" -> {
                 if (operation == null) {
@@ -115,6 +92,37 @@ public class SubCommand_Permission implements CommandHandler<Player> {
 
     }
 
+    private void handleUser(@NotNull Player sender, @NotNull Shop shop, @Nullable String operation, @NotNull String target, @Nullable String group) {
+        if (operation == null) {
+            plugin.text().of(sender, "bad-command-usage-detailed", "set,unset").send();
+            return;
+        }
+        plugin.getPlayerFinder().name2UuidAsync(target).thenAccept(uuid -> Util.mainThreadRun(() -> {
+            if (uuid == null) {
+                plugin.text().of(sender, "unknown-player", target).send();
+                return;
+            }
+            switch (operation) {
+                case "set" -> {
+                    if (group == null) {
+                        plugin.text().of(sender, "command-incorrect", "/qs permission user set <group>").send();
+                        return;
+                    }
+                    if (!plugin.getShopPermissionManager().hasGroup(group)) {
+                        plugin.text().of(sender, "invalid-group", target).send();
+                        return;
+                    }
+                    shop.setPlayerGroup(uuid, group);
+                    plugin.text().of(sender, "successfully-set-player-group", target, group).send();
+                }
+                case "unset" -> {
+                    shop.setPlayerGroup(uuid, BuiltInShopPermissionGroup.EVERYONE);
+                    plugin.text().of(sender, "successfully-unset-player-group", target).send();
+                }
+            }
+        }));
+    }
+
     /**
      * Calling while sender trying to tab-complete
      *
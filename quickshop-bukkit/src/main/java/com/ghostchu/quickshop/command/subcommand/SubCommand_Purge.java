@@ -4,6 +4,10 @@ import com.ghostchu.quickshop.QuickShop;
 import com.ghostchu.quickshop.api.command.CommandHandler;
 import org.bukkit.command.CommandSender;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.List;
 
 public class SubCommand_Purge implements CommandHandler<CommandSender> {
 
@@ -15,9 +19,20 @@ public class SubCommand_Purge implements CommandHandler<CommandSender> {
 
     @Override
     public void onCommand(@NotNull CommandSender sender, @NotNull String commandLabel, @NotNull String[] cmdArg) {
+        if (cmdArg.length > 0 && "cancel".equalsIgnoreCase(cmdArg[0])) {
+            if (plugin.getShopPurger().cancel()) {
+                plugin.text().of(sender, "shop-purge-cancelled").send();
+            } else {
+                plugin.text().of(sender, "shop-purge-not-running").send();
+            }
+            return;
+        }
         plugin.getShopPurger().purge();
         plugin.text().of(sender, "shop-purged-start").send();
     }
 
-
+    @Override
+    public @Nullable List<String> onTabComplete(@NotNull CommandSender sender, @NotNull String commandLabel, @NotNull String[] cmdArg) {
+        return cmdArg.length <= 1 ? Collections.singletonList("cancel") : Collections.emptyList();
+    }
 }
@@ -5,6 +5,7 @@ import com.ghostchu.quickshop.api.command.CommandHandler;
 import com.ghostchu.quickshop.api.shop.Shop;
 import com.ghostchu.quickshop.util.Util;
 import com.ghostchu.quickshop.util.logging.container.ShopRemoveLog;
+import com.ghostchu.quickshop.util.performance.BatchBukkitExecutor;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.OfflinePlayer;
@@ -43,7 +44,7 @@ public class SubCommand_RemoveAll implements CommandHandler<CommandSender> {
                 return;
             }
 
-            int i = 0;
+            List<Shop> pendingRemoval = new ArrayList<>();
             if (!shopOwner.equals(sender)) { //Non-self shop
                 if (!plugin.perm().hasPermission(sender, "quickshop.removeall.other")) {
                     plugin.text().of(sender, "no-permission").send();
@@ -51,9 +52,7 @@ public class SubCommand_RemoveAll implements CommandHandler<CommandSender> {
                 }
                 for (Shop shop : tempList) {
                     if (shop.getOwner().equals(shopOwner.getUniqueId())) {
-                        plugin.logEvent(new ShopRemoveLog(Util.getSenderUniqueId(sender), "Deleting shop " + shop + " as requested by the /qs removeall command.", shop.saveToInfoStorage()));
-                        shop.delete();
-                        i++;
+                        pendingRemoval.add(shop);
                     }
                 }
             } else { //Self shop
@@ -67,13 +66,20 @@ public class SubCommand_RemoveAll implements CommandHandler<CommandSender> {
                 }
                 for (Shop shop : tempList) {
                     if (shop.getOwner().equals(((OfflinePlayer) sender).getUniqueId())) {
-                        plugin.logEvent(new ShopRemoveLog(Util.getSenderUniqueId(sender), "Deleting shop " + shop + " as requested by the /qs removeall command.", shop.saveToInfoStorage()));
-                        shop.delete();
-                        i++;
+                        pendingRemoval.add(shop);
                     }
                 }
             }
-            plugin.text().of(sender, "command.some-shops-removed", i).send();
+            // Delete them in batches, an owner may have thousands of shops
+            BatchBukkitExecutor<Shop> removeExecutor = new BatchBukkitExecutor<>(15, BatchBukkitExecutor.Priority.HIGH);
+            removeExecutor.addTasks(pendingRemoval);
+            removeExecutor.startHandle(plugin.getJavaPlugin(), shop -> {
+                if (shop.isDeleted()) {
+                    return;
+                }
+                plugin.logEvent(new ShopRemoveLog(Util.getSenderUniqueId(sender), "Deleting shop " + shop + " as requested by the /qs removeall command.", shop.saveToInfoStorage()));
+                shop.delete();
+            }, () -> plugin.text().of(sender, "command.some-shops-removed", pendingRemoval.size()).send());
         } else {
             plugin.text().of(sender, "command.no-owner-given").send();
         }
@@ -4,11 +4,14 @@ import com.ghostchu.quickshop.QuickShop;
 import com.ghostchu.quickshop.api.command.CommandHandler;
 import com.ghostchu.quickshop.api.shop.Shop;
 import com.ghostchu.quickshop.util.logger.Log;
+import com.ghostchu.quickshop.util.performance.BatchBukkitExecutor;
 import org.bukkit.Bukkit;
 import org.bukkit.World;
 import org.bukkit.command.CommandSender;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 public class SubCommand_RemoveWorld implements CommandHandler<CommandSender> {
@@ -30,15 +33,22 @@ public class SubCommand_RemoveWorld implements CommandHandler<CommandSender> {
             plugin.text().of(sender, "world-not-exists", cmdArg[0]).send();
             return;
         }
-        int shopsDeleted = 0;
+        List<Shop> pendingRemoval = new ArrayList<>();
         for (Shop shop : plugin.getShopManager().getAllShops()) {
             if (Objects.equals(shop.getLocation().getWorld(), world)) {
-                shop.delete();
-                shopsDeleted++;
+                pendingRemoval.add(shop);
             }
         }
-        Log.debug("Successfully deleted all shops in world " + cmdArg[0] + "!");
-        plugin.text().of(sender, "shops-removed-in-world", shopsDeleted, world.getName()).send();
+        BatchBukkitExecutor<Shop> removeExecutor = new BatchBukkitExecutor<>(15, BatchBukkitExecutor.Priority.HIGH);
+        removeExecutor.addTasks(pendingRemoval);
+        removeExecutor.startHandle(plugin.getJavaPlugin(), shop -> {
+            if (!shop.isDeleted()) {
+                shop.delete();
+            }
+        }, () -> {
+            Log.debug("Successfully deleted all shops in world " + cmdArg[0] + "!");
+            plugin.text().of(sender, "shops-removed-in-world", pendingRemoval.size(), world.getName()).send();
+        });
     }
 
 }
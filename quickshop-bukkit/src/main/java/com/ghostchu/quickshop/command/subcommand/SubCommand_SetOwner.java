@@ -5,12 +5,12 @@ import com.ghostchu.quickshop.api.command.CommandHandler;
 import com.ghostchu.quickshop.api.event.ShopOwnershipTransferEvent;
 import com.ghostchu.quickshop.api.shop.Shop;
 import com.ghostchu.quickshop.api.shop.permission.BuiltInShopPermission;
+import com.ghostchu.quickshop.util.Util;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Collections;
 import java.util.List;
-import java.util.UUID;
 
 import static com.ghostchu.quickshop.util.Util.getPlayerList;
 
@@ -41,17 +41,18 @@ public class SubCommand_SetOwner implements CommandHandler<Player> {
             return;
         }
 
-        UUID newShopOwner = plugin.getPlayerFinder().name2Uuid(cmdArg[0]);
-        if (newShopOwner == null) {
-            plugin.text().of(sender, "unknown-player").send();
-            return;
-        }
-        ShopOwnershipTransferEvent event = new ShopOwnershipTransferEvent(shop, shop.getOwner(), newShopOwner);
-        if (event.callCancellableEvent()) {
-            return;
-        }
-        shop.setOwner(newShopOwner);
-        plugin.text().of(sender, "command.new-owner", cmdArg[0]).send();
+        plugin.getPlayerFinder().name2UuidAsync(cmdArg[0]).thenAccept(newShopOwner -> Util.mainThreadRun(() -> {
+            if (newShopOwner == null) {
+                plugin.text().of(sender, "unknown-player").send();
+                return;
+            }
+            ShopOwnershipTransferEvent event = new ShopOwnershipTransferEvent(shop, shop.getOwner(), newShopOwner);
+            if (event.callCancellableEvent()) {
+                return;
+            }
+            shop.setOwner(newShopOwner);
+            plugin.text().of(sender, "command.new-owner", cmdArg[0]).send();
+        }));
     }
 
     @NotNull
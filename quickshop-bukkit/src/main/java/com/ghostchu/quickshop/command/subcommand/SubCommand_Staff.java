@@ -71,27 +71,29 @@ public class SubCommand_Staff implements CommandHandler<Player> {
                 }
                 case 2 -> {
                     String name = cmdArg[1];
-                    Util.asyncThreadRun(() -> {
-                        UUID uuid = plugin.getPlayerFinder().name2Uuid(cmdArg[1]);
-                        Util.mainThreadRun(() -> {
-                            switch (cmdArg[0]) {
-                                case "add" -> {
-                                    shop.setPlayerGroup(uuid, BuiltInShopPermissionGroup.STAFF);
-                                    plugin.text().of(sender, "shop-staff-added", name).send();
-                                    return;
-                                }
-                                case "del" -> {
-                                    shop.setPlayerGroup(uuid, BuiltInShopPermissionGroup.EVERYONE);
-                                    plugin.text().of(sender, "shop-staff-deleted", name).send();
-                                    return;
-                                }
-                                default -> {
-                                    plugin.text().of(sender, "command.wrong-args").send();
-                                    return;
-                                }
+                    plugin.getPlayerFinder().name2UuidAsync(name).thenAccept(uuid -> Util.mainThreadRun(() -> {
+                        if (uuid == null) {
+                            plugin.text().of(sender, "unknown-player", name).send();
+                            return;
+                        }
+                        switch (cmdArg[0]) {
+                            case "add" -> {
+                                shop.setPlayerGroup(uuid, BuiltInShopPermissionGroup.STAFF);
+                                plugin.text().of(sender, "shop-staff-added", name).send();
+                                return;
                             }
-                        });
-                    });
+                            case "del" -> {
+                                shop.setPlayerGroup(uuid, BuiltInShopPermissionGroup.EVERYONE);
+                                plugin.text().of(sender, "shop-staff-deleted", name).send();
+                                return;
+                            }
+                            default -> {
+                                plugin.text().of(sender, "command.wrong-args").send();
+                                return;
+                            }
+                        }
+                    }));
+                    return;
                 }
                 default -> {
                     plugin.text().of(sender, "command.wrong-args").send();
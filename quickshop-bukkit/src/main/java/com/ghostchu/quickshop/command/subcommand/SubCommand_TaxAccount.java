@@ -4,6 +4,7 @@ import com.ghostchu.quickshop.QuickShop;
 import com.ghostchu.quickshop.api.command.CommandHandler;
 import com.ghostchu.quickshop.api.shop.Shop;
 import com.ghostchu.quickshop.common.util.CommonUtil;
+import com.ghostchu.quickshop.util.Util;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
@@ -29,15 +30,17 @@ public class SubCommand_TaxAccount implements CommandHandler<Player> {
             }
             if (CommonUtil.isUUID(cmdArg[0])) {
                 shop.setTaxAccount(UUID.fromString(cmdArg[0]));
-            } else {
-                UUID uuid = plugin.getPlayerFinder().name2Uuid(cmdArg[0]);
+                plugin.text().of(sender, "taxaccount-set", cmdArg[0]).send();
+                return;
+            }
+            plugin.getPlayerFinder().name2UuidAsync(cmdArg[0]).thenAccept(uuid -> Util.mainThreadRun(() -> {
                 if (uuid == null) {
                     plugin.text().of(sender, "unknown-player").send();
                     return;
                 }
                 shop.setTaxAccount(uuid);
-            }
-            plugin.text().of(sender, "taxaccount-set", cmdArg[0]).send();
+                plugin.text().of(sender, "taxaccount-set", cmdArg[0]).send();
+            }));
         } else {
             plugin.text().of(sender, "not-looking-at-shop").send();
         }
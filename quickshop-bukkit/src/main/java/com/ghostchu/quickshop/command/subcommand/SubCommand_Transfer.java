@@ -16,6 +16,7 @@ import org.jetbrains.annotations.Nullable;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 public class SubCommand_Transfer implements CommandHandler<Player> {
@@ -59,26 +60,27 @@ public class SubCommand_Transfer implements CommandHandler<Player> {
                 }
                 default -> {
                     String name = cmdArg[0];
-                    UUID uuid = plugin.getPlayerFinder().name2Uuid(cmdArg[0]);
-                    if (uuid == null) {
-                        plugin.text().of(sender, "unknown-player").send();
-                        return;
-                    }
-                    Player receiver = Bukkit.getPlayer(uuid);
-                    if (receiver == null) {
-                        plugin.text().of(sender, "player-offline", name).send();
-                        return;
-                    }
-                    if (sender.getUniqueId().equals(uuid)) {
-                        plugin.text().of(sender, "transfer-no-self", name).send();
-                        return;
-                    }
-                    List<Shop> shopList = plugin.getShopManager().getPlayerAllShops(sender.getUniqueId());
-                    PendingTransferTask task = new PendingTransferTask(sender.getUniqueId(), uuid, shopList);
-                    taskCache.put(uuid, task);
-                    plugin.text().of(sender, "transfer-sent", name).send();
-                    plugin.text().of(receiver, "transfer-request", sender.getName()).send();
-                    plugin.text().of(receiver, "transfer-ask", 60).send();
+                    plugin.getPlayerFinder().name2UuidAsync(name).thenAccept(uuid -> Util.mainThreadRun(() -> {
+                        if (uuid == null) {
+                            plugin.text().of(sender, "unknown-player").send();
+                            return;
+                        }
+                        Player receiver = Bukkit.getPlayer(uuid);
+                        if (receiver == null) {
+                            plugin.text().of(sender, "player-offline", name).send();
+                            return;
+                        }
+                        if (sender.getUniqueId().equals(uuid)) {
+                            plugin.text().of(sender, "transfer-no-self", name).send();
+                            return;
+                        }
+                        List<Shop> shopList = plugin.getShopManager().getPlayerAllShops(sender.getUniqueId());
+                        PendingTransferTask task = new PendingTransferTask(sender.getUniqueId(), uuid, shopList);
+                        taskCache.put(uuid, task);
+                        plugin.text().of(sender, "transfer-sent", name).send();
+                        plugin.text().of(receiver, "transfer-request", sender.getName()).send();
+                        plugin.text().of(receiver, "transfer-ask", 60).send();
+                    }));
                     return;
                 }
             }
@@ -88,20 +90,24 @@ public class SubCommand_Transfer implements CommandHandler<Player> {
                 plugin.text().of(sender, "no-permission").send();
                 return;
             }
-            UUID fromPlayer = plugin.getPlayerFinder().name2Uuid(cmdArg[0]);
-            UUID targetPlayer = plugin.getPlayerFinder().name2Uuid(cmdArg[1]);
-            if (fromPlayer == null) {
-                plugin.text().of(sender, "unknown-player", "fromPlayer").send();
-                return;
-            }
-            if (targetPlayer == null) {
-                plugin.text().of(sender, "unknown-player", "targetPlayer").send();
-                return;
-            }
-            List<Shop> shopList = plugin.getShopManager().getPlayerAllShops(fromPlayer);
-            PendingTransferTask task = new PendingTransferTask(fromPlayer, targetPlayer, shopList);
-            task.commit(false);
-            plugin.text().of(sender, "command.transfer-success-other", shopList.size(), cmdArg[0], cmdArg[1]).send();
+            CompletableFuture<UUID> fromLookup = plugin.getPlayerFinder().name2UuidAsync(cmdArg[0]);
+            CompletableFuture<UUID> targetLookup = plugin.getPlayerFinder().name2UuidAsync(cmdArg[1]);
+            CompletableFuture.allOf(fromLookup, targetLookup).thenRun(() -> Util.mainThreadRun(() -> {
+                UUID fromPlayer = fromLookup.join();
+                UUID targetPlayer = targetLookup.join();
+                if (fromPlayer == null) {
+                    plugin.text().of(sender, "unknown-player", "fromPlayer").send();
+                    return;
+                }
+                if (targetPlayer == null) {
+                    plugin.text().of(sender, "unknown-player", "targetPlayer").send();
+                    return;
+                }
+                List<Shop> shopList = plugin.getShopManager().getPlayerAllShops(fromPlayer);
+                PendingTransferTask task = new PendingTransferTask(fromPlayer, targetPlayer, shopList);
+                task.commit(false);
+                plugin.text().of(sender, "command.transfer-success-other", shopList.size(), cmdArg[0], cmdArg[1]).send();
+            }));
         }
     }
 
@@ -458,6 +458,11 @@ public class SimpleDatabaseHelperV2 implements DatabaseHelper {
         return DataTables.MESSAGES.createQuery().build().execute();
     }
 
+    @Override
+    public @NotNull SQLQuery selectAllPlayers() throws SQLException {
+        return DataTables.PLAYERS.createQuery().selectColumns("uuid", "cachedName").build().execute();
+    }
+
     @Override
     public @NotNull SQLQuery selectTable(@NotNull String table) throws SQLException {
         return manager.createQuery()
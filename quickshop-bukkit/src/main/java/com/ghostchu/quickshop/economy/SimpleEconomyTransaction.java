@@ -21,6 +21,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 
 /**
@@ -30,6 +31,8 @@ import java.util.logging.Level;
  */
 @ToString
 public class SimpleEconomyTransaction implements EconomyTransaction {
+    private static final LongAdder COMMITTED = new LongAdder();
+    private static final LongAdder FAILED = new LongAdder();
     @JsonUtil.Hidden
     private final QuickShop plugin = QuickShop.getInstance();
     private final Deque<Operation> processingStack = new LinkedList<>();
@@ -114,6 +117,24 @@ public class SimpleEconomyTransaction implements EconomyTransaction {
         new EconomyTransactionEvent(this).callEvent();
     }
 
+    /**
+     * Getting the amount of the transactions committed successfully since server started
+     *
+     * @return The amount
+     */
+    public static long getCommittedCount() {
+        return COMMITTED.sum();
+    }
+
+    /**
+     * Getting the amount of the transactions failed or cancelled since server started
+     *
+     * @return The amount
+     */
+    public static long getFailedCount() {
+        return FAILED.sum();
+    }
+
     public interface SimpleTransactionCallback extends TransactionCallback {
         /**
          * Calling while Transaction commit
@@ -143,7 +164,7 @@ public class SimpleEconomyTransaction implements EconomyTransaction {
          * @param economyTransaction Transaction
          */
         default void onSuccess(@NotNull SimpleEconomyTransaction economyTransaction) {
-            Log.transaction("Transaction succeed: " + economyTransaction);
+            Log.transaction(() -> "Transaction succeed: " + economyTransaction);
             QuickShop.getInstance().logEvent(new EconomyTransactionLog(true, economyTransaction.getFrom(), economyTransaction.getTo(), economyTransaction.getCurrency(), economyTransaction.getTax(), economyTransaction.getTaxer() == null ? CommonUtil.getNilUniqueId() : economyTransaction.getTaxer(), economyTransaction.getAmount(), economyTransaction.getLastError()));
         }
 
@@ -184,7 +205,13 @@ public class SimpleEconomyTransaction implements EconomyTransaction {
      */
     @Override
     public boolean commit(@NotNull TransactionCallback callback) {
-        Log.transaction("Transaction begin: Regular Commit --> " + from + " => " + to + "; Amount: " + amount + " Total(after tax): " + amountAfterTax + " Tax: " + tax + ", EconomyCore: " + core.getName());
+        boolean result = commit0(callback);
+        (result ? COMMITTED : FAILED).increment();
+        return result;
+    }
+
+    private boolean commit0(@NotNull TransactionCallback callback) {
+        Log.transaction(() -> "Transaction begin: Regular Commit --> " + from + " => " + to + "; Amount: " + amount + " Total(after tax): " + amountAfterTax + " Tax: " + tax + ", EconomyCore: " + core.getName());
         if (!callback.onCommit(this)) {
             this.lastError = "Plugin cancelled this transaction.";
             return false;
@@ -212,7 +239,8 @@ public class SimpleEconomyTransaction implements EconomyTransaction {
             double payout = 0d;
             for (Map.Entry<UUID, Double> entry : benefit.getRegistry().entrySet()) {
                 payout += entry.getValue();
-                Log.transaction("Benefit for " + entry.getKey() + ", value: " + entry.getValue() + ". Payout = " + payout);
+                double currentPayout = payout;
+                Log.transaction(() -> "Benefit for " + entry.getKey() + ", value: " + entry.getValue() + ". Payout = " + currentPayout);
                 if (!this.executeOperation(new DepositEconomyOperation(entry.getKey(), amountAfterTax * entry.getValue(), world, currency, core))) {
                     this.lastError = "Failed to deposit " + amountAfterTax * entry.getValue() + " to player " + to + " account. LastError: " + core.getLastError();
                     callback.onFailed(this);
@@ -344,7 +372,7 @@ public class SimpleEconomyTransaction implements EconomyTransaction {
      */
     @Override
     public boolean failSafeCommit() {
-        Log.transaction("Transaction begin: FailSafe Commit --> " + from + " => " + to + "; Amount: " + amount + ", EconomyCore: " + core.getName());
+        Log.transaction(() -> "Transaction begin: FailSafe Commit --> " + from + " => " + to + "; Amount: " + amount + ", EconomyCore: " + core.getName());
         boolean result = commit();
         if (!result) {
             Log.transaction(Level.WARNING, "Fail-safe commit failed, starting rollback: " + lastError);
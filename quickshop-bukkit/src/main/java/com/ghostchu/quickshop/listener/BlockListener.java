@@ -6,9 +6,12 @@ import com.ghostchu.quickshop.api.shop.Info;
 import com.ghostchu.quickshop.api.shop.Shop;
 import com.ghostchu.quickshop.api.shop.ShopAction;
 import com.ghostchu.quickshop.api.shop.permission.BuiltInShopPermission;
+import com.ghostchu.quickshop.shop.ContainerShop;
+import com.ghostchu.quickshop.shop.SimpleShopManager;
 import com.ghostchu.quickshop.util.Util;
 import com.ghostchu.quickshop.util.logger.Log;
 import com.ghostchu.quickshop.util.logging.container.ShopRemoveLog;
+import com.ghostchu.quickshop.util.performance.TickTimings;
 import com.ghostchu.simplereloadlib.ReloadResult;
 import com.ghostchu.simplereloadlib.ReloadStatus;
 import org.bukkit.GameMode;
@@ -34,6 +37,8 @@ import org.jetbrains.annotations.Nullable;
  * @author KaiNoMood, Ghost_chu, sandtechnology
  */
 public class BlockListener extends AbstractProtectionListener {
+    private static final BlockFace[] SIGN_NEIGHBOURS = {BlockFace.EAST, BlockFace.NORTH, BlockFace.SOUTH, BlockFace.WEST};
+    private static final TickTimings.Section INVENTORY_MOVE_TIMINGS = TickTimings.section("Inventory Move (Sign Update)");
     private boolean updateSignWhenInventoryMoving;
 
     public BlockListener(@NotNull final QuickShop plugin, @Nullable final Cache cache) {
@@ -141,6 +146,15 @@ public class BlockListener extends AbstractProtectionListener {
         if (!this.updateSignWhenInventoryMoving) {
             return;
         }
+        long startTime = System.nanoTime();
+        try {
+            scheduleInventoryMoveSignUpdate(event);
+        } finally {
+            INVENTORY_MOVE_TIMINGS.record(startTime);
+        }
+    }
+
+    private void scheduleInventoryMoveSignUpdate(@NotNull InventoryMoveItemEvent event) {
         Location destination = event.getDestination().getLocation();
         Location source = event.getSource().getLocation();
         Shop destShop = null;
@@ -247,6 +261,39 @@ public class BlockListener extends AbstractProtectionListener {
         }
     }
 
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+    public void onSignNeighbourPlace(BlockPlaceEvent event) {
+        invalidateAdjacentSignsCache(event.getBlock());
+    }
+
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+    public void onSignNeighbourBreak(BlockBreakEvent event) {
+        invalidateAdjacentSignsCache(event.getBlock());
+    }
+
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+    public void onSignNeighbourChange(SignChangeEvent event) {
+        invalidateAdjacentSignsCache(event.getBlock());
+    }
+
+    /**
+     * Drop the cached sign positions of the shops next to the block
+     *
+     * @param block The block that changed
+     */
+    private void invalidateAdjacentSignsCache(@NotNull Block block) {
+        // Fast path: not next to any shop
+        if (!((SimpleShopManager) plugin.getShopManager()).getShopBlockIndex().mayContainShop(block.getLocation())) {
+            return;
+        }
+        for (BlockFace face : SIGN_NEIGHBOURS) {
+            Shop shop = plugin.getShopManager().getShop(block.getRelative(face).getLocation());
+            if (shop instanceof ContainerShop containerShop) {
+                containerShop.invalidateSignsCache();
+            }
+        }
+    }
+
     /**
      * Callback for reloading
      *
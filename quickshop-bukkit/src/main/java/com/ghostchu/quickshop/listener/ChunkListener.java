@@ -6,6 +6,7 @@ import com.ghostchu.quickshop.api.shop.display.DisplayType;
 import com.ghostchu.quickshop.shop.display.AbstractDisplayItem;
 import com.ghostchu.quickshop.util.logger.Log;
 import com.ghostchu.quickshop.util.performance.PerfMonitor;
+import com.ghostchu.quickshop.util.performance.TickTimings;
 import com.ghostchu.simplereloadlib.ReloadResult;
 import com.ghostchu.simplereloadlib.ReloadStatus;
 import org.bukkit.Bukkit;
@@ -23,6 +24,8 @@ import java.time.temporal.ChronoUnit;
 import java.util.Map;
 
 public class ChunkListener extends AbstractQSListener {
+    private static final TickTimings.Section LOAD_TIMINGS = TickTimings.section("Chunk Load");
+    private static final TickTimings.Section UNLOAD_TIMINGS = TickTimings.section("Chunk Unload");
 
     public ChunkListener(QuickShop plugin) {
         super(plugin);
@@ -37,13 +40,22 @@ public class ChunkListener extends AbstractQSListener {
         if (inChunk == null) {
             return;
         }
-        cleanDisplayItems(e.getChunk());
+        long startTime = System.nanoTime();
+        try {
+            cleanDisplayItems(e.getChunk());
+        } finally {
+            LOAD_TIMINGS.record(startTime);
+        }
         String chunkName = e.getChunk().getWorld().getName() + ", X=" + e.getChunk().getX() + ", Z=" + e.getChunk().getZ();
         Bukkit.getScheduler().runTaskLater(plugin.getJavaPlugin(), () -> {
-            try (PerfMonitor ignored = new PerfMonitor("Load shops in chunk [" + chunkName + "]", Duration.of(2, ChronoUnit.SECONDS))) {
+            long loadStartTime = System.nanoTime();
+            try (PerfMonitor perf = new PerfMonitor("Load shops in chunk", Duration.of(2, ChronoUnit.SECONDS))) {
+                perf.setContext(chunkName);
                 for (Shop shop : inChunk.values()) {
                     shop.onLoad();
                 }
+            } finally {
+                LOAD_TIMINGS.record(loadStartTime);
             }
         }, 1);
     }
@@ -68,12 +80,15 @@ public class ChunkListener extends AbstractQSListener {
         if (inChunk == null) {
             return;
         }
-        for (Shop shop : inChunk.values()) {
-            try (PerfMonitor ignored = new PerfMonitor("Unload shops in chunk " + e.getChunk(), Duration.of(2, ChronoUnit.SECONDS))) {
+        long startTime = System.nanoTime();
+        try (PerfMonitor ignored = new PerfMonitor("Unload shops in chunk", Duration.of(2, ChronoUnit.SECONDS))) {
+            for (Shop shop : inChunk.values()) {
                 if (shop.isLoaded()) {
                     shop.onUnload();
                 }
             }
+        } finally {
+            UNLOAD_TIMINGS.record(startTime);
         }
     }
 
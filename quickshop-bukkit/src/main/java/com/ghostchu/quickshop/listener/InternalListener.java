@@ -82,7 +82,7 @@ public class InternalListener extends AbstractQSListener {
             plugin.logEvent(new ShopRemoveLog(CommonUtil.getNilUniqueId(), "Shop removed", event.getShop().saveToInfoStorage()));
         }
         if (plugin.getShopCache() != null) {
-            plugin.getShopCache().invalidate(event.getShop().getLocation());
+            plugin.getShopCache().invalidateShop(event.getShop().getLocation());
         }
     }
 
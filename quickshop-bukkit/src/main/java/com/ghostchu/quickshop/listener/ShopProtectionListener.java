@@ -9,6 +9,7 @@ import com.ghostchu.quickshop.shop.datatype.HopperPersistentData;
 import com.ghostchu.quickshop.shop.datatype.HopperPersistentDataType;
 import com.ghostchu.quickshop.util.Util;
 import com.ghostchu.quickshop.util.logging.container.ShopRemoveLog;
+import com.ghostchu.quickshop.util.performance.TickTimings;
 import com.ghostchu.simplereloadlib.ReloadResult;
 import com.ghostchu.simplereloadlib.ReloadStatus;
 import org.bukkit.Location;
@@ -26,7 +27,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 public class ShopProtectionListener extends AbstractProtectionListener {
-
+    private static final TickTimings.Section INVENTORY_MOVE_TIMINGS = TickTimings.section("Inventory Move (Hopper Protection)");
     private final NamespacedKey hopperKey = new NamespacedKey(QuickShop.getInstance().getJavaPlugin(), "hopper-persistent-data");
     private boolean hopperProtect;
     private boolean hopperOwnerExclude;
@@ -116,6 +117,15 @@ public class ShopProtectionListener extends AbstractProtectionListener {
         if (!this.hopperProtect) {
             return;
         }
+        long startTime = System.nanoTime();
+        try {
+            protectInventoryMove(event);
+        } finally {
+            INVENTORY_MOVE_TIMINGS.record(startTime);
+        }
+    }
+
+    private void protectInventoryMove(@NotNull InventoryMoveItemEvent event) {
         final Location loc = event.getSource().getLocation();
 
         if (loc == null) {
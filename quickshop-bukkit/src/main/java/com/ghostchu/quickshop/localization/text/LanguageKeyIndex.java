@@ -0,0 +1,59 @@
+package com.ghostchu.quickshop.localization.text;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Interns the built-in language keys into integer ids, all locale tables share the same index
+ * so a key only needs to be hashed once no matter which locale is being looked up.
+ */
+public class LanguageKeyIndex {
+    private final Map<String, Integer> key2Id;
+    private final String[] id2Key;
+
+    public LanguageKeyIndex(@NotNull Collection<String> keys) {
+        this.key2Id = new HashMap<>(keys.size() * 2);
+        this.id2Key = new String[keys.size()];
+        int id = 0;
+        for (String key : keys) {
+            if (key2Id.putIfAbsent(key, id) == null) {
+                id2Key[id] = key;
+                id++;
+            }
+        }
+    }
+
+    /**
+     * Getting the interned id of specific language key
+     *
+     * @param key The language key path
+     * @return The id, or -1 if this key isn't a built-in key
+     */
+    public int idOf(@NotNull String key) {
+        Integer id = key2Id.get(key);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Getting the language key path of specific interned id
+     *
+     * @param id The interned id
+     * @return The language key path
+     */
+    @NotNull
+    public String keyOf(int id) {
+        return id2Key[id];
+    }
+
+    /**
+     * Getting the amount of interned keys
+     *
+     * @return The amount of interned keys
+     */
+    public int size() {
+        return key2Id.size();
+    }
+}
@@ -0,0 +1,234 @@
+package com.ghostchu.quickshop.localization.text;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * The flat, immutable key -> value table of a locale.
+ * Built-in keys are stored in an array indexed by the {@link LanguageKeyIndex}, the rest (custom keys from overrides or
+ * registered by addons) are stored in a map.
+ * MiniMessage templates are compiled on first use and kept until the table is dropped.
+ */
+public class LanguageTable {
+    private final String locale;
+    private final LanguageKeyIndex keyIndex;
+    // String or List<String>
+    private final Object[] values;
+    private final Map<String, Object> customValues;
+    // Component or List<Component>
+    private final Object[] templates;
+    private final Map<String, Object> customTemplates = new ConcurrentHashMap<>();
+
+    private LanguageTable(@NotNull String locale, @NotNull LanguageKeyIndex keyIndex, @NotNull Object[] values, @NotNull Map<String, Object> customValues) {
+        this(locale, keyIndex, values, customValues, new Object[values.length]);
+    }
+
+    private LanguageTable(@NotNull String locale, @NotNull LanguageKeyIndex keyIndex, @NotNull Object[] values, @NotNull Map<String, Object> customValues, @NotNull Object[] templates) {
+        this.locale = locale;
+        this.keyIndex = keyIndex;
+        this.values = values;
+        this.customValues = customValues;
+        this.templates = templates;
+    }
+
+    /**
+     * Flatten the locale configuration into a language table
+     *
+     * @param locale        The locale code
+     * @param keyIndex      The interned built-in keys
+     * @param configuration The locale configuration
+     * @return The language table
+     */
+    @NotNull
+    public static LanguageTable compile(@NotNull String locale, @NotNull LanguageKeyIndex keyIndex, @NotNull FileConfiguration configuration) {
+        Object[] values = new Object[keyIndex.size()];
+        Map<String, Object> customValues = new HashMap<>();
+        for (String key : configuration.getKeys(true)) {
+            if (configuration.isConfigurationSection(key)) {
+                continue;
+            }
+            Object value = configuration.get(key);
+            if (value == null) {
+                continue;
+            }
+            if (value instanceof List<?>) {
+                value = List.copyOf(configuration.getStringList(key));
+            } else {
+                value = value.toString();
+            }
+            int id = keyIndex.idOf(key);
+            if (id == -1) {
+                customValues.put(key, value);
+            } else {
+                values[id] = value;
+            }
+        }
+        return new LanguageTable(locale, keyIndex, values, Map.copyOf(customValues));
+    }
+
+    /**
+     * Copy this table with a single key changed, the compiled templates of other keys are kept
+     *
+     * @param path  The language key path
+     * @param value The raw string
+     * @return The new language table
+     */
+    @NotNull
+    public LanguageTable with(@NotNull String path, @NotNull String value) {
+        int id = keyIndex.idOf(path);
+        LanguageTable table;
+        if (id == -1) {
+            Map<String, Object> newCustomValues = new HashMap<>(customValues);
+            newCustomValues.put(path, value);
+            table = new LanguageTable(locale, keyIndex, values, Map.copyOf(newCustomValues), templates.clone());
+        } else {
+            Object[] newValues = values.clone();
+            newValues[id] = value;
+            Object[] newTemplates = templates.clone();
+            newTemplates[id] = null;
+            table = new LanguageTable(locale, keyIndex, newValues, customValues, newTemplates);
+        }
+        customTemplates.forEach((key, template) -> {
+            if (!key.equals(path)) {
+                table.customTemplates.put(key, template);
+            }
+        });
+        return table;
+    }
+
+    @NotNull
+    public String getLocale() {
+        return locale;
+    }
+
+    @Nullable
+    private Object getValue(@NotNull String path) {
+        int id = keyIndex.idOf(path);
+        if (id == -1) {
+            return customValues.get(path);
+        }
+        return values[id];
+    }
+
+    /**
+     * Getting the raw string of specific key
+     *
+     * @param path The language key path
+     * @return The raw string, null if not exists
+     */
+    @Nullable
+    public String getString(@NotNull String path) {
+        Object value = getValue(path);
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * Getting the raw strings of specific list key
+     *
+     * @param path The language key path
+     * @return The raw strings, empty list if not exists or not a list
+     */
+    @SuppressWarnings("unchecked")
+    @NotNull
+    public List<String> getStringList(@NotNull String path) {
+        if (getValue(path) instanceof List<?> list) {
+            return (List<String>) list;
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Getting the precompiled template of specific key, compile it if not compiled yet.
+     *
+     * @param path     The language key path
+     * @param compiler The template compiler
+     * @return The template, null if the key not exists
+     */
+    @Nullable
+    public Component getTemplate(@NotNull String path, @NotNull Function<String, Component> compiler) {
+        int id = keyIndex.idOf(path);
+        Object template = id == -1 ? customTemplates.get(path) : templates[id];
+        if (template instanceof Component component) {
+            return component;
+        }
+        String str = getString(path);
+        if (str == null) {
+            return null;
+        }
+        Component component = compiler.apply(str);
+        storeTemplate(id, path, component);
+        return component;
+    }
+
+    /**
+     * Getting the precompiled templates of specific list key, compile it if not compiled yet.
+     *
+     * @param path     The language key path
+     * @param compiler The template compiler
+     * @return The templates, empty list if the key not exists
+     */
+    @SuppressWarnings("unchecked")
+    @NotNull
+    public List<Component> getListTemplate(@NotNull String path, @NotNull Function<String, Component> compiler) {
+        int id = keyIndex.idOf(path);
+        Object template = id == -1 ? customTemplates.get(path) : templates[id];
+        if (template instanceof List<?> list) {
+            return (List<Component>) list;
+        }
+        List<String> str = getStringList(path);
+        if (str.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Component> components = str.stream().map(compiler).toList();
+        storeTemplate(id, path, components);
+        return components;
+    }
+
+    private void storeTemplate(int id, @NotNull String path, @NotNull Object template) {
+        // Components are immutable, racing on the same slot is harmless.
+        if (id == -1) {
+            customTemplates.put(path, template);
+        } else {
+            templates[id] = template;
+        }
+    }
+
+    /**
+     * Getting the amount of keys in this table
+     *
+     * @return The amount of keys
+     */
+    public int size() {
+        int size = customValues.size();
+        for (Object value : values) {
+            if (value != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Getting the amount of compiled templates in this table
+     *
+     * @return The amount of compiled templates
+     */
+    public int compiledSize() {
+        int size = customTemplates.size();
+        for (Object template : templates) {
+            if (template != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+}
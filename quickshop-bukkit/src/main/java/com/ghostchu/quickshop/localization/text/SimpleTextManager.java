@@ -43,6 +43,7 @@ import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
@@ -58,6 +59,12 @@ public class SimpleTextManager implements TextManager, Reloadable, SubPasteItem
     private final Set<String> availableLanguages = new LinkedHashSet<>();
     private final Cache<String, String> languagesCache =
             CacheBuilder.newBuilder().expireAfterAccess(30, TimeUnit.MINUTES).recordStats().build();
+    private final Cache<Player, ProxiedLocale> playerLanguagesCache =
+            CacheBuilder.newBuilder().weakKeys().expireAfterAccess(30, TimeUnit.MINUTES).recordStats().build();
+    // <Locale, Table>
+    // Replaced on reload, updated in place by the registrations
+    private volatile Map<String, LanguageTable> languageTables = new ConcurrentHashMap<>();
+    private volatile LanguageKeyIndex languageKeyIndex = new LanguageKeyIndex(Collections.emptyList());
     private final String crowdinHost;
     @Nullable
     private CrowdinOTA crowdinOTA;
@@ -162,7 +169,10 @@ public class SimpleTextManager implements TextManager, Reloadable, SubPasteItem
         // Register post processor
         postProcessors.add(new FillerProcessor());
         postProcessors.add(new PlaceHolderApiProcessor());
-
+        // Compile the flat language tables
+        compileLanguageTables();
+        languagesCache.invalidateAll();
+        playerLanguagesCache.invalidateAll();
     }
 
     /**
@@ -175,6 +185,30 @@ public class SimpleTextManager implements TextManager, Reloadable, SubPasteItem
         availableLanguages.clear();
     }
 
+    /**
+     * Compile all loaded locales into flat language tables, built-in keys will be interned.
+     */
+    private synchronized void compileLanguageTables() {
+        FileConfiguration fallback = loadBuiltInFallback();
+        List<String> builtInKeys = new ArrayList<>();
+        for (String key : fallback.getKeys(true)) {
+            if (!fallback.isConfigurationSection(key)) {
+                builtInKeys.add(key);
+            }
+        }
+        LanguageKeyIndex keyIndex = new LanguageKeyIndex(builtInKeys);
+        Map<String, LanguageTable> tables = new HashMap<>();
+        languageFilesManager.getDistributions().forEach((locale, configuration) -> tables.put(locale, LanguageTable.compile(locale, keyIndex, configuration)));
+        this.languageKeyIndex = keyIndex;
+        this.languageTables = new ConcurrentHashMap<>(tables);
+        Log.debug("Compiled " + tables.size() + " language tables with " + keyIndex.size() + " built-in keys");
+    }
+
+    @NotNull
+    private Component compileTemplate(@NotNull String str) {
+        return plugin.getPlatform().miniMessage().deserialize(str);
+    }
+
     @NotNull
     private FileConfiguration loadBuiltInFallback() {
         YamlConfiguration configuration = new YamlConfiguration();
@@ -318,9 +352,14 @@ public class SimpleTextManager implements TextManager, Reloadable, SubPasteItem
         meta.insert("Crowdin Distribution URL", crowdinHost);
         meta.insert("Available Languages", String.valueOf(availableLanguages.size()));
         meta.insert("Post Processors", String.valueOf(postProcessors.size()));
+        meta.insert("Language Tables", String.valueOf(languageTables.size()));
+        meta.insert("Built-in Keys", String.valueOf(languageKeyIndex.size()));
+        meta.insert("Compiled Templates", String.valueOf(languageTables.values().stream().mapToInt(LanguageTable::compiledSize).sum()));
         joiner.add(meta.render());
         joiner.add("<h5>Caching</h5>");
         joiner.add(GuavaCacheRender.renderTable(languagesCache.stats()));
+        joiner.add("<h5>Player Locale Caching</h5>");
+        joiner.add(GuavaCacheRender.renderTable(playerLanguagesCache.stats()));
         return joiner.toString();
     }
 
@@ -386,11 +425,11 @@ public class SimpleTextManager implements TextManager, Reloadable, SubPasteItem
     public static class TextList implements com.ghostchu.quickshop.api.localization.text.TextList {
         private final SimpleTextManager manager;
         private final String path;
-        private final Map<String, FileConfiguration> mapping;
+        private final Map<String, LanguageTable> mapping;
         private final CommandSender sender;
         private final Component[] args;
 
-        private TextList(SimpleTextManager manager, CommandSender sender, Map<String, FileConfiguration> mapping, String path, Component... args) {
+        private TextList(SimpleTextManager manager, CommandSender sender, Map<String, LanguageTable> mapping, String path, Component... args) {
             this.manager = manager;
             this.sender = sender;
             this.mapping = mapping;
@@ -398,7 +437,7 @@ public class SimpleTextManager implements TextManager, Reloadable, SubPasteItem
             this.args = args;
         }
 
-        private TextList(SimpleTextManager manager, UUID sender, Map<String, FileConfiguration> mapping, String path, Component... args) {
+        private TextList(SimpleTextManager manager, UUID sender, Map<String, LanguageTable> mapping, String path, Component... args) {
             this.manager = manager;
             if (sender != null) {
                 this.sender = Bukkit.getPlayer(sender);
@@ -419,7 +458,7 @@ public class SimpleTextManager implements TextManager, Reloadable, SubPasteItem
         @Override
         @NotNull
         public List<Component> forLocale(@NotNull String locale) {
-            FileConfiguration index = mapping.get(manager.findRelativeLanguages(locale).getLocale());
+            LanguageTable index = mapping.get(manager.findRelativeLanguages(locale).getLocale());
             if (index == null) {
                 Log.debug("Fallback " + locale + " to default game-language locale caused by QuickShop doesn't support this locale");
                 String languageCode = MsgUtil.getDefaultGameLanguageCode();
@@ -430,12 +469,11 @@ public class SimpleTextManager implements TextManager, Reloadable, SubPasteItem
                     return forLocale(languageCode);
                 }
             } else {
-                List<String> str = index.getStringList(path);
-                if (str.isEmpty()) {
+                List<Component> components = index.getListTemplate(path, manager::compileTemplate);
+                if (components.isEmpty()) {
                     Log.debug("Fallback Missing Language Key: " + path + ", report to QuickShop!");
                     return Collections.singletonList(LegacyComponentSerializer.legacySection().deserialize(path));
                 }
-                List<Component> components = str.stream().map(s -> manager.plugin.getPlatform().miniMessage().deserialize(s)).toList();
                 return postProcess(components);
             }
         }
@@ -468,7 +506,7 @@ public class SimpleTextManager implements TextManager, Reloadable, SubPasteItem
             } else {
                 locale = MsgUtil.getDefaultGameLanguageCode();
             }
-            FileConfiguration index = mapping.get(manager.findRelativeLanguages(locale).getLocale());
+            LanguageTable index = mapping.get(manager.findRelativeLanguages(locale).getLocale());
             return index != null;
         }
 
@@ -515,11 +553,11 @@ public class SimpleTextManager implements TextManager, Reloadable, SubPasteItem
     public static class Text implements com.ghostchu.quickshop.api.localization.text.Text {
         private final SimpleTextManager manager;
         private final String path;
-        private final Map<String, FileConfiguration> mapping;
+        private final Map<String, LanguageTable> mapping;
         private final CommandSender sender;
         private final Component[] args;
 
-        private Text(SimpleTextManager manager, CommandSender sender, Map<String, FileConfiguration> mapping, String path, Component... args) {
+        private Text(SimpleTextManager manager, CommandSender sender, Map<String, LanguageTable> mapping, String path, Component... args) {
             this.manager = manager;
             this.sender = sender;
             this.mapping = mapping;
@@ -527,7 +565,7 @@ public class SimpleTextManager implements TextManager, Reloadable, SubPasteItem
             this.args = args;
         }
 
-        private Text(SimpleTextManager manager, UUID sender, Map<String, FileConfiguration> mapping, String path, Component... args) {
+        private Text(SimpleTextManager manager, UUID sender, Map<String, LanguageTable> mapping, String path, Component... args) {
             this.manager = manager;
             if (sender != null) {
                 this.sender = Bukkit.getPlayer(sender);
@@ -548,7 +586,7 @@ public class SimpleTextManager implements TextManager, Reloadable, SubPasteItem
         @Override
         @NotNull
         public Component forLocale(@NotNull String locale) {
-            FileConfiguration index = mapping.get(manager.findRelativeLanguages(locale).getLocale());
+            LanguageTable index = mapping.get(manager.findRelativeLanguages(locale).getLocale());
             if (index == null) {
                 Log.debug("Index for " + locale + " is null");
                 Log.debug("Fallback " + locale + " to default game-language locale caused by QuickShop doesn't support this locale");
@@ -559,19 +597,12 @@ public class SimpleTextManager implements TextManager, Reloadable, SubPasteItem
                     return forLocale(MsgUtil.getDefaultGameLanguageCode());
                 }
             } else {
-                String str = index.getString(path);
-                if (str == null) {
-                    Log.debug("The value about index " + index + " is null");
+                Component component = index.getTemplate(path, manager::compileTemplate);
+                if (component == null) {
+                    Log.debug("The value about index " + index.getLocale() + " is null");
                     Log.debug("Missing Language Key: " + path + ", report to QuickShop!");
-                    StringJoiner joiner = new StringJoiner(".");
-                    String[] pathExploded = path.split("\\.");
-                    for (String singlePath : pathExploded) {
-                        joiner.add(singlePath);
-                        Log.debug("Path debug: " + joiner + " is " + index.get(singlePath, "null"));
-                    }
                     return LegacyComponentSerializer.legacySection().deserialize(path);
                 }
-                Component component = manager.plugin.getPlatform().miniMessage().deserialize(str);
                 return postProcess(component);
             }
         }
@@ -604,7 +635,7 @@ public class SimpleTextManager implements TextManager, Reloadable, SubPasteItem
             } else {
                 locale = MsgUtil.getDefaultGameLanguageCode();
             }
-            FileConfiguration index = mapping.get(manager.findRelativeLanguages(locale).getLocale());
+            LanguageTable index = mapping.get(manager.findRelativeLanguages(locale).getLocale());
             return index != null;
         }
 
@@ -638,7 +669,14 @@ public class SimpleTextManager implements TextManager, Reloadable, SubPasteItem
     @Override
     public @NotNull ProxiedLocale findRelativeLanguages(@Nullable CommandSender sender) {
         if (sender instanceof Player player) {
-            return findRelativeLanguages(player.getLocale());
+            String langCode = player.getLocale();
+            ProxiedLocale cached = playerLanguagesCache.getIfPresent(player);
+            // Player may switch the game language at any time
+            if (cached == null || !langCode.equals(cached.getOrigin())) {
+                cached = findRelativeLanguages(langCode);
+                playerLanguagesCache.put(player, cached);
+            }
+            return cached;
         }
         return findRelativeLanguages(MsgUtil.getDefaultGameLanguageCode());
     }
@@ -652,14 +690,21 @@ public class SimpleTextManager implements TextManager, Reloadable, SubPasteItem
      */
     @SneakyThrows(InvalidConfigurationException.class)
     @Override
-    public void register(@NotNull String locale, @NotNull String path, @NotNull String text) {
+    public synchronized void register(@NotNull String locale, @NotNull String path, @NotNull String text) {
         FileConfiguration configuration = languageFilesManager.getDistribution(locale);
+        LanguageTable table = languageTables.get(locale);
         if (configuration == null) {
             configuration = new YamlConfiguration();
             configuration.loadFromString(languageFilesManager.getDistribution(DEFAULT_LOCALE).saveToString());
+            configuration.set(path, text);
+            languageFilesManager.deploy(locale, configuration);
+            table = LanguageTable.compile(locale, languageKeyIndex, configuration);
+        } else {
+            // Only the changed key needs to be updated, addons register the phrases one by one
+            configuration.set(path, text);
+            table = table == null ? LanguageTable.compile(locale, languageKeyIndex, configuration) : table.with(path, text);
         }
-        configuration.set(path, text);
-        languageFilesManager.deploy(locale, configuration);
+        languageTables.put(locale, table);
     }
 
     @Override
@@ -684,7 +729,7 @@ public class SimpleTextManager implements TextManager, Reloadable, SubPasteItem
      */
     @Override
     public @NotNull Text of(@NotNull String path, Object... args) {
-        return new Text(this, (CommandSender) null, languageFilesManager.getDistributions(), path, convert(args));
+        return new Text(this, (CommandSender) null, languageTables, path, convert(args));
     }
 
     /**
@@ -697,7 +742,7 @@ public class SimpleTextManager implements TextManager, Reloadable, SubPasteItem
      */
     @Override
     public @NotNull Text of(@Nullable CommandSender sender, @NotNull String path, Object... args) {
-        return new Text(this, sender, languageFilesManager.getDistributions(), path, convert(args));
+        return new Text(this, sender, languageTables, path, convert(args));
     }
 
     /**
@@ -710,7 +755,7 @@ public class SimpleTextManager implements TextManager, Reloadable, SubPasteItem
      */
     @Override
     public @NotNull Text of(@Nullable UUID sender, @NotNull String path, Object... args) {
-        return new Text(this, sender, languageFilesManager.getDistributions(), path, convert(args));
+        return new Text(this, sender, languageTables, path, convert(args));
     }
 
     @Override
@@ -795,7 +840,7 @@ public class SimpleTextManager implements TextManager, Reloadable, SubPasteItem
      */
     @Override
     public @NotNull TextList ofList(@NotNull String path, Object... args) {
-        return new TextList(this, (CommandSender) null, languageFilesManager.getDistributions(), path, convert(args));
+        return new TextList(this, (CommandSender) null, languageTables, path, convert(args));
     }
 
     /**
@@ -818,7 +863,7 @@ public class SimpleTextManager implements TextManager, Reloadable, SubPasteItem
      */
     @Override
     public @NotNull TextList ofList(@Nullable UUID sender, @NotNull String path, Object... args) {
-        return new TextList(this, sender, languageFilesManager.getDistributions(), path, convert(args));
+        return new TextList(this, sender, languageTables, path, convert(args));
     }
 
     /**
@@ -831,7 +876,7 @@ public class SimpleTextManager implements TextManager, Reloadable, SubPasteItem
      */
     @Override
     public @NotNull TextList ofList(@Nullable CommandSender sender, @NotNull String path, Object... args) {
-        return new TextList(this, sender, languageFilesManager.getDistributions(), path, convert(args));
+        return new TextList(this, sender, languageTables, path, convert(args));
     }
 
 
@@ -0,0 +1,293 @@
+package com.ghostchu.quickshop.metric;
+
+import com.ghostchu.quickshop.Cache;
+import com.ghostchu.quickshop.QuickShop;
+import com.ghostchu.quickshop.api.event.ShopPurchaseEvent;
+import com.ghostchu.quickshop.api.event.ShopSuccessPurchaseEvent;
+import com.ghostchu.quickshop.common.util.QuickExecutor;
+import com.ghostchu.quickshop.economy.SimpleEconomyTransaction;
+import com.ghostchu.quickshop.listener.AbstractQSListener;
+import com.ghostchu.quickshop.papi.QuickShopPAPI;
+import com.ghostchu.quickshop.util.FastPlayerFinder;
+import com.ghostchu.quickshop.util.performance.PerfMonitor;
+import com.ghostchu.quickshop.util.performance.PerfTimer;
+import com.ghostchu.quickshop.util.performance.TickTimings;
+import com.ghostchu.quickshop.watcher.DisplayCheckWatcher;
+import com.ghostchu.quickshop.watcher.SignUpdateWatcher;
+import com.ghostchu.simplereloadlib.ReloadResult;
+import com.ghostchu.simplereloadlib.ReloadStatus;
+import com.google.common.cache.CacheStats;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Expose the runtime metrics in Prometheus text format through an embedded HTTP server.
+ * <p>
+ * The counters are always collected since they are cheap, the HTTP server only starts when the exporter enabled in config.
+ * The server is bound to the loopback address by default, put a reverse proxy before it if it must be reachable remotely.
+ */
+public class PrometheusExporter extends AbstractQSListener {
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final double[] QUANTILES = {0.5D, 0.9D, 0.99D};
+    private final LongAdder purchaseAttempts = new LongAdder();
+    private final LongAdder purchaseCancelled = new LongAdder();
+    private final LongAdder purchaseSelling = new LongAdder();
+    private final LongAdder purchaseBuying = new LongAdder();
+    private final LongAdder purchaseItems = new LongAdder();
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+
+    public PrometheusExporter(@NotNull QuickShop plugin) {
+        super(plugin);
+    }
+
+    /**
+     * Start the HTTP server if the exporter enabled
+     */
+    public void start() {
+        if (!plugin.getConfig().getBoolean("metrics-exporter.enable")) {
+            return;
+        }
+        String host = plugin.getConfig().getString("metrics-exporter.host", "127.0.0.1");
+        int port = plugin.getConfig().getInt("metrics-exporter.port", 9464);
+        try {
+            server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        } catch (IOException e) {
+            plugin.logger().warn("Failed to start the metrics exporter on {}:{}", host, port, e);
+            return;
+        }
+        serverExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "QuickShop-MetricsExporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.createContext("/metrics", this::handle);
+        server.setExecutor(serverExecutor);
+        server.start();
+        plugin.logger().info("Metrics exporter is listening on http://{}:{}/metrics", host, port);
+    }
+
+    /**
+     * Stop the HTTP server, the collected counters will be kept
+     */
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+        if (serverExecutor != null) {
+            serverExecutor.shutdownNow();
+            serverExecutor = null;
+        }
+    }
+
+    @Override
+    public ReloadResult reloadModule() {
+        stop();
+        start();
+        return ReloadResult.builder().status(ReloadStatus.SUCCESS).build();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPurchase(ShopPurchaseEvent event) {
+        purchaseAttempts.increment();
+        if (event.isCancelled()) {
+            purchaseCancelled.increment();
+        }
+    }
+
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+    public void onSuccessPurchase(ShopSuccessPurchaseEvent event) {
+        if (event.getShop().isSelling()) {
+            purchaseSelling.increment();
+        } else {
+            purchaseBuying.increment();
+        }
+        purchaseItems.add(event.getAmount());
+    }
+
+    private void handle(@NotNull HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body;
+            try {
+                body = collect().getBytes(StandardCharsets.UTF_8);
+            } catch (RuntimeException e) {
+                plugin.logger().warn("Failed to collect the metrics", e);
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        }
+    }
+
+    @NotNull
+    private String collect() {
+        MetricWriter writer = new MetricWriter();
+        writer.type("quickshop_purchase_attempts_total", "counter", "The purchases that reached ShopPurchaseEvent");
+        writer.sample("quickshop_purchase_attempts_total", "", purchaseAttempts.sum());
+        writer.type("quickshop_purchase_cancelled_total", "counter", "The purchases cancelled by ShopPurchaseEvent");
+        writer.sample("quickshop_purchase_cancelled_total", "", purchaseCancelled.sum());
+        writer.type("quickshop_purchase_success_total", "counter", "The purchases finished successfully");
+        writer.sample("quickshop_purchase_success_total", "type=\"selling\"", purchaseSelling.sum());
+        writer.sample("quickshop_purchase_success_total", "type=\"buying\"", purchaseBuying.sum());
+        writer.type("quickshop_purchase_items_total", "counter", "The items traded by the successful purchases");
+        writer.sample("quickshop_purchase_items_total", "", purchaseItems.sum());
+
+        writer.type("quickshop_economy_transactions_total", "counter", "The committed economy transactions");
+        writer.sample("quickshop_economy_transactions_total", "result=\"success\"", SimpleEconomyTransaction.getCommittedCount());
+        writer.sample("quickshop_economy_transactions_total", "result=\"failed\"", SimpleEconomyTransaction.getFailedCount());
+
+        // The samples of a metric must be grouped together, so write metric by metric
+        Map<String, ThreadPoolExecutor> pools = new LinkedHashMap<>();
+        putPool(pools, "common", QuickExecutor.getCommonExecutor());
+        putPool(pools, "database", QuickExecutor.getDatabaseExecutor());
+        putPool(pools, "shop_save", QuickExecutor.getShopSaveExecutor());
+        writer.type("quickshop_executor_active_threads", "gauge", "The threads that executing tasks");
+        pools.forEach((name, pool) -> writer.sample("quickshop_executor_active_threads", "pool=\"" + name + "\"", pool.getActiveCount()));
+        writer.type("quickshop_executor_pool_size", "gauge", "The threads in the pool");
+        pools.forEach((name, pool) -> writer.sample("quickshop_executor_pool_size", "pool=\"" + name + "\"", pool.getPoolSize()));
+        writer.type("quickshop_executor_queue_size", "gauge", "The tasks waiting in the queue");
+        pools.forEach((name, pool) -> writer.sample("quickshop_executor_queue_size", "pool=\"" + name + "\"", pool.getQueue().size()));
+        writer.type("quickshop_executor_completed_tasks_total", "counter", "The tasks completed by the pool");
+        pools.forEach((name, pool) -> writer.sample("quickshop_executor_completed_tasks_total", "pool=\"" + name + "\"", pool.getCompletedTaskCount()));
+
+        Map<String, CacheStats> caches = new LinkedHashMap<>();
+        Cache shopCache = plugin.getShopCache();
+        if (shopCache != null) {
+            caches.put("shop", shopCache.getStats());
+        }
+        if (plugin.getPlayerFinder() instanceof FastPlayerFinder playerFinder) {
+            caches.put("player_name", playerFinder.getNameCache().stats());
+        }
+        QuickShopPAPI papi = plugin.getQuickShopPAPI();
+        if (papi != null) {
+            caches.put("placeholder", papi.getManager().getCache().getStats());
+        }
+        writer.type("quickshop_cache_requests_total", "counter", "The cache lookups");
+        caches.forEach((name, stats) -> {
+            writer.sample("quickshop_cache_requests_total", "cache=\"" + name + "\",result=\"hit\"", stats.hitCount());
+            writer.sample("quickshop_cache_requests_total", "cache=\"" + name + "\",result=\"miss\"", stats.missCount());
+        });
+        writer.type("quickshop_cache_hit_ratio", "gauge", "The cache hit ratio");
+        caches.forEach((name, stats) -> writer.sample("quickshop_cache_hit_ratio", "cache=\"" + name + "\"", stats.hitRate()));
+
+        if (plugin.getShopManager() != null) {
+            writer.type("quickshop_shops", "gauge", "The shops known by the shop manager");
+            writer.sample("quickshop_shops", "state=\"loaded\"", plugin.getShopManager().getLoadedShops().size());
+            writer.sample("quickshop_shops", "state=\"total\"", plugin.getShopManager().getShopCount());
+        }
+
+        SignUpdateWatcher signUpdateWatcher = plugin.getSignUpdateWatcher();
+        DisplayCheckWatcher displayCheckWatcher = plugin.getDisplayCheckWatcher();
+        writer.type("quickshop_watcher_processed_total", "counter", "The shops processed by the main thread watchers");
+        if (signUpdateWatcher != null) {
+            writer.sample("quickshop_watcher_processed_total", "watcher=\"sign_update\"", signUpdateWatcher.getUpdated());
+        }
+        if (displayCheckWatcher != null) {
+            writer.sample("quickshop_watcher_processed_total", "watcher=\"display_check\"", displayCheckWatcher.getTotalChecked());
+        }
+        writer.type("quickshop_watcher_seconds_total", "counter", "The main thread time spent by the watchers");
+        if (signUpdateWatcher != null) {
+            writer.sample("quickshop_watcher_seconds_total", "watcher=\"sign_update\"", toSeconds(signUpdateWatcher.getUpdateNanos()));
+        }
+        if (displayCheckWatcher != null) {
+            writer.sample("quickshop_watcher_seconds_total", "watcher=\"display_check\"", toSeconds(displayCheckWatcher.getTotalCheckNanos()));
+        }
+        if (signUpdateWatcher != null) {
+            writer.type("quickshop_sign_update_backlog", "gauge", "The shops waiting for sign update");
+            writer.sample("quickshop_sign_update_backlog", "", signUpdateWatcher.getBacklog());
+        }
+        if (displayCheckWatcher != null) {
+            writer.type("quickshop_display_check_budget_exceeded_total", "counter", "The ticks that display check exceeded its budget");
+            writer.sample("quickshop_display_check_budget_exceeded_total", "", displayCheckWatcher.getBudgetExceeded());
+        }
+
+        List<TickTimings.Section> sections = TickTimings.getSections();
+        writer.type("quickshop_main_thread_seconds_total", "counter", "The main thread time spent by the subsystems");
+        for (TickTimings.Section section : sections) {
+            writer.sample("quickshop_main_thread_seconds_total", "subsystem=\"" + escape(section.getName()) + "\"", toSeconds(section.getTotalNanos()));
+        }
+        writer.type("quickshop_main_thread_calls_total", "counter", "The main thread calls of the subsystems");
+        for (TickTimings.Section section : sections) {
+            writer.sample("quickshop_main_thread_calls_total", "subsystem=\"" + escape(section.getName()) + "\"", section.getCalls());
+        }
+
+        writer.type("quickshop_task_duration_seconds", "summary", "The task durations recorded by the profiler");
+        for (PerfTimer timer : PerfMonitor.getTimers()) {
+            String label = "task=\"" + escape(timer.getName()) + "\"";
+            for (double quantile : QUANTILES) {
+                writer.sample("quickshop_task_duration_seconds", label + ",quantile=\"" + quantile + "\"", toSeconds(timer.getPercentileNanos(quantile)));
+            }
+            writer.sample("quickshop_task_duration_seconds_sum", label, toSeconds(timer.getTotalNanos()));
+            writer.sample("quickshop_task_duration_seconds_count", label, timer.getCount());
+        }
+        return writer.toString();
+    }
+
+    private static void putPool(@NotNull Map<String, ThreadPoolExecutor> pools, @NotNull String name, @NotNull ExecutorService executor) {
+        if (executor instanceof ThreadPoolExecutor pool) {
+            pools.put(name, pool);
+        }
+    }
+
+    private static double toSeconds(long nanos) {
+        return nanos / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    @NotNull
+    private static String escape(@NotNull String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static class MetricWriter {
+        private final StringBuilder builder = new StringBuilder(4096);
+
+        private void type(@NotNull String name, @NotNull String type, @NotNull String help) {
+            builder.append("# HELP ").append(name).append(' ').append(help).append('\n');
+            builder.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        }
+
+        private void sample(@NotNull String name, @NotNull String labels, double value) {
+            builder.append(name);
+            if (!labels.isEmpty()) {
+                builder.append('{').append(labels).append('}');
+            }
+            builder.append(' ');
+            if (value == Math.rint(value) && !Double.isInfinite(value)) {
+                builder.append((long) value);
+            } else {
+                builder.append(value);
+            }
+            builder.append('\n');
+        }
+
+        @Override
+        public String toString() {
+            return builder.toString();
+        }
+    }
+}
@@ -2,26 +2,49 @@ package com.ghostchu.quickshop.papi;
 
 import com.ghostchu.quickshop.QuickShop;
 import com.ghostchu.quickshop.api.shop.Shop;
-import com.ghostchu.quickshop.common.util.JsonUtil;
+import com.ghostchu.quickshop.common.util.QuickExecutor;
 import com.ghostchu.quickshop.util.performance.PerfMonitor;
 import com.ghostchu.simplereloadlib.ReloadResult;
 import com.ghostchu.simplereloadlib.Reloadable;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheStats;
-import lombok.Data;
+import org.bukkit.Bukkit;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BiFunction;
 
+/**
+ * The placeholder caching which never blocks the main thread.
+ * <p>
+ * The last value is always served, the value will be refreshed in background once it older than {@link #REFRESH_AHEAD_RATIO}
+ * of the expire time. The cold misses on the main thread return the loading placeholder and load the value in background,
+ * the cold misses on other threads load the value directly. The values haven't been requested within the expire time will be removed.
+ * <p>
+ * The values are grouped by the query string first and then by the player, so a lookup only probes two maps with the
+ * cached {@link String} hash and the {@link UUID} hash, nothing will be allocated on a cache hit.
+ */
 public class PAPICache implements Reloadable {
+    private static final double REFRESH_AHEAD_RATIO = 0.75D;
+    private static final long FAILURE_RETRY_MILLIS = TimeUnit.SECONDS.toMillis(5);
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder loadSuccessCount = new LongAdder();
+    private final LongAdder loadFailureCount = new LongAdder();
+    private final LongAdder totalLoadNanos = new LongAdder();
     private QuickShop plugin;
     private long expiredTime;
-    private Cache<String, Optional<String>> performCaches;
+    private long refreshTime;
+    @Nullable
+    private String loadingPlaceholder;
+    private Cache<String, QueryCache> performCaches;
 
     public PAPICache() {
         init();
@@ -31,25 +54,88 @@ public class PAPICache implements Reloadable {
     private void init() {
         this.plugin = QuickShop.getInstance();
         this.expiredTime = plugin.getConfig().getLong("plugin.PlaceHolderAPI.cache", 900000);
+        this.refreshTime = (long) (expiredTime * REFRESH_AHEAD_RATIO);
+        this.loadingPlaceholder = plugin.getConfig().getString("plugin.PlaceHolderAPI.loading-placeholder", "...");
         this.performCaches = CacheBuilder.newBuilder()
-                .expireAfterWrite(expiredTime, java.util.concurrent.TimeUnit.MILLISECONDS)
-                .recordStats()
+                .expireAfterAccess(expiredTime, TimeUnit.MILLISECONDS)
                 .build();
     }
 
     @NotNull
-    public Optional<String> getCached(@NotNull UUID player, @NotNull String args, @NotNull BiFunction<UUID, String, String> loader) {
-        try (PerfMonitor ignored = new PerfMonitor("PlaceHolder API Handling")) {
-            return performCaches.get(compileUniqueKey(player, args), () -> Optional.ofNullable(loader.apply(player, args)));
-        } catch (ExecutionException ex) {
-            ex.printStackTrace();
-            return Optional.empty();
+    public Optional<String> getCached(@NotNull UUID player, @NotNull String args, @NotNull BiFunction<UUID, PlaceholderQuery, String> loader) {
+        QueryCache queryCache = getQueryCache(args);
+        // Don't use Cache#get(K, Callable), it allocates a loader for every call
+        CachedValue cached = queryCache.values.getIfPresent(player);
+        if (cached == null) {
+            cached = queryCache.values.asMap().computeIfAbsent(player, uuid -> new CachedValue());
+        }
+        Optional<String> value = cached.value;
+        if (value == null) {
+            missCount.increment();
+            // The last load failed, wait a moment before retrying
+            if (System.currentTimeMillis() < cached.refreshAt) {
+                return Bukkit.isPrimaryThread() ? Optional.ofNullable(loadingPlaceholder) : Optional.empty();
+            }
+            if (!Bukkit.isPrimaryThread()) {
+                return load(cached, player, queryCache.query, loader);
+            }
+            refreshAsync(cached, player, queryCache.query, loader);
+            return Optional.ofNullable(loadingPlaceholder);
         }
+        hitCount.increment();
+        if (System.currentTimeMillis() >= cached.refreshAt) {
+            refreshAsync(cached, player, queryCache.query, loader);
+        }
+        return value;
     }
 
     @NotNull
-    private String compileUniqueKey(@NotNull UUID player, @NotNull String queryString) {
-        return JsonUtil.standard().toJson(new CompiledUniqueKey(player, queryString));
+    private QueryCache getQueryCache(@NotNull String queryString) {
+        QueryCache queryCache = performCaches.getIfPresent(queryString);
+        if (queryCache == null) {
+            queryCache = performCaches.asMap().computeIfAbsent(queryString, key -> new QueryCache(new PlaceholderQuery(key), expiredTime));
+        }
+        return queryCache;
+    }
+
+    private void refreshAsync(@NotNull CachedValue cached, @NotNull UUID player, @NotNull PlaceholderQuery query, @NotNull BiFunction<UUID, PlaceholderQuery, String> loader) {
+        // Only one refresh for every value in flight
+        if (!cached.loading.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            QuickExecutor.getCommonExecutor().execute(() -> {
+                try {
+                    load(cached, player, query, loader);
+                } finally {
+                    cached.loading.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down or reloading, let the next read try again
+            cached.loading.set(false);
+        }
+    }
+
+    @NotNull
+    private Optional<String> load(@NotNull CachedValue cached, @NotNull UUID player, @NotNull PlaceholderQuery query, @NotNull BiFunction<UUID, PlaceholderQuery, String> loader) {
+        long startTime = System.nanoTime();
+        try (PerfMonitor ignored = new PerfMonitor("PlaceHolder API Handling")) {
+            Optional<String> value = Optional.ofNullable(loader.apply(player, query));
+            cached.update(value, refreshTime);
+            loadSuccessCount.increment();
+            return value;
+        } catch (Exception e) {
+            loadFailureCount.increment();
+            plugin.logger().warn("Failed to handle the placeholder {}, serving the last value", query, e);
+            // Keep the last value, or nothing if never loaded, and retry soon
+            cached.refreshAt = System.currentTimeMillis() + FAILURE_RETRY_MILLIS;
+            Optional<String> last = cached.value;
+            //noinspection OptionalAssignedToNull
+            return last == null ? Optional.empty() : last;
+        } finally {
+            totalLoadNanos.add(System.nanoTime() - startTime);
+        }
     }
 
     private long getShopsInWorld(@NotNull String world, boolean loadedOnly) {
@@ -77,15 +163,17 @@ public class PAPICache implements Reloadable {
     }
 
     public @NotNull CacheStats getStats() {
-        return performCaches.stats();
+        return new CacheStats(hitCount.sum(), missCount.sum(), loadSuccessCount.sum(), loadFailureCount.sum(), totalLoadNanos.sum(), 0);
     }
 
     @Nullable
     public String readCache(@NotNull UUID player, @NotNull String queryString) {
-        Optional<String> cache = performCaches.getIfPresent(compileUniqueKey(player, queryString));
+        QueryCache queryCache = performCaches.getIfPresent(queryString);
+        if (queryCache == null) return null;
+        CachedValue cached = queryCache.values.getIfPresent(player);
         //noinspection OptionalAssignedToNull
-        if (cache == null || cache.isEmpty()) return null;
-        return cache.orElse(null);
+        if (cached == null || cached.value == null) return null;
+        return cached.value.orElse(null);
     }
 
     @Override
@@ -95,19 +183,34 @@ public class PAPICache implements Reloadable {
     }
 
     public void writeCache(@NotNull UUID player, @NotNull String queryString, @NotNull String queryValue) {
-        performCaches.put(compileUniqueKey(player, queryString), Optional.of(queryValue));
+        CachedValue cached = new CachedValue();
+        cached.update(Optional.of(queryValue), refreshTime);
+        getQueryCache(queryString).values.put(player, cached);
     }
 
-    @Data
-    static class CompiledUniqueKey {
-        private UUID player;
-        private String queryString;
+    private static class QueryCache {
+        private final PlaceholderQuery query;
+        private final Cache<UUID, CachedValue> values;
 
-        public CompiledUniqueKey(UUID player, String queryString) {
-            this.player = player;
-            this.queryString = queryString;
+        private QueryCache(@NotNull PlaceholderQuery query, long expiredTime) {
+            this.query = query;
+            this.values = CacheBuilder.newBuilder()
+                    .expireAfterAccess(expiredTime, TimeUnit.MILLISECONDS)
+                    .build();
         }
     }
 
-
+    static class CachedValue {
+        private final AtomicBoolean loading = new AtomicBoolean();
+        // null for not loaded yet
+        @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+        private volatile Optional<String> value;
+        private volatile long refreshAt;
+
+        @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+        private void update(@NotNull Optional<String> value, long refreshTime) {
+            this.value = value;
+            this.refreshAt = System.currentTimeMillis() + refreshTime;
+        }
+    }
 }
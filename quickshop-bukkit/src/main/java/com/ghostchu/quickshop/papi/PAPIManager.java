@@ -9,6 +9,7 @@ import com.ghostchu.quickshop.util.logger.Log;
 import com.ghostchu.quickshop.util.paste.GuavaCacheRender;
 import com.ghostchu.quickshop.util.paste.item.SubPasteItem;
 import com.ghostchu.quickshop.util.paste.util.HTMLTable;
+import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -17,10 +18,12 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.StringJoiner;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class PAPIManager implements SubPasteItem {
     private final QuickShop plugin;
-    private final List<PAPISubHandler> handlers = new ArrayList<>();
+    // Iterated by the background loaders
+    private final List<PAPISubHandler> handlers = new CopyOnWriteArrayList<>();
     private final PAPICache cache = new PAPICache();
 
     public PAPIManager(@NotNull QuickShop plugin) {
@@ -58,20 +61,28 @@ public class PAPIManager implements SubPasteItem {
         return new ArrayList<>(handlers);
     }
 
+    @NotNull
+    public PAPICache getCache() {
+        return cache;
+    }
+
     @Nullable
     public String handle(@NotNull OfflinePlayer player, @NotNull String params) {
-        UUID playerUniqueId = player.getUniqueId();
-        return cache.getCached(playerUniqueId, params, (uuid, parms) -> {
-            for (PAPISubHandler handler : handlers) {
-                Log.debug("Comparing with " + handler.getPrefix() + " and " + params);
-                if (params.startsWith(handler.getPrefix())) {
-                    Log.debug("Match! Handling...");
-                    return handler.handle(player, params);
-                }
+        return cache.getCached(player.getUniqueId(), params, this::load).orElse(null);
+    }
+
+    @Nullable
+    private String load(@NotNull UUID playerUniqueId, @NotNull PlaceholderQuery query) {
+        OfflinePlayer player = Bukkit.getOfflinePlayer(playerUniqueId);
+        for (PAPISubHandler handler : handlers) {
+            Log.debug("Comparing with " + handler.getPrefix() + " and " + query);
+            if (query.getParams().startsWith(handler.getPrefix())) {
+                Log.debug("Match! Handling...");
+                return handler.handle(player, query);
             }
-            Log.debug("No PAPI handler hit");
-            return null;
-        }).orElse(null);
+        }
+        Log.debug("No PAPI handler hit");
+        return null;
     }
 
     @Override
@@ -7,6 +7,13 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.UUID;
 
+/**
+ * The handler of the placeholders with a prefix.
+ * <p>
+ * The values are cached and refreshed in background, so the handlers are called from the QuickShop common executor
+ * as well as the threads that PlaceholderAPI requested from, not only the main thread. The handlers must be thread-safe
+ * and must not access the Bukkit API that requires the main thread.
+ */
 public interface PAPISubHandler {
     @Nullable
     default String handle(@NotNull OfflinePlayer player, @NotNull String params) {
@@ -14,6 +21,18 @@ public interface PAPISubHandler {
         return handle0(player.getUniqueId(), raw);
     }
 
+    /**
+     * Handle a parsed query, override it to use the arguments that already split
+     *
+     * @param player The player
+     * @param query  The parsed query
+     * @return The placeholder value
+     */
+    @Nullable
+    default String handle(@NotNull OfflinePlayer player, @NotNull PlaceholderQuery query) {
+        return handle(player, query.getParams());
+    }
+
     @NotNull
     String getPrefix();
 
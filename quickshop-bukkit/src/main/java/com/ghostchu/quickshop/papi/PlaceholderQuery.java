@@ -0,0 +1,55 @@
+package com.ghostchu.quickshop.papi;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * A parsed placeholder query, the arguments are split only once per query string and shared by all players.
+ */
+public final class PlaceholderQuery {
+    private static final String[] EMPTY = new String[0];
+    private final String params;
+    private final String[] args;
+
+    public PlaceholderQuery(@NotNull String params) {
+        this.params = params;
+        this.args = params.split("_");
+    }
+
+    /**
+     * Getting the raw query string
+     *
+     * @return The params that PlaceholderAPI passed in
+     */
+    @NotNull
+    public String getParams() {
+        return params;
+    }
+
+    /**
+     * Getting the arguments after the handler prefix
+     * e.g. metrics_recent_purchases_global_selling_7 with prefix metrics_recent_purchases is [global, selling, 7]
+     *
+     * @param prefix The handler prefix
+     * @return The arguments, empty if the query not starts with the prefix
+     */
+    @NotNull
+    public String[] getArgsAfter(@NotNull String prefix) {
+        if (!params.startsWith(prefix + "_")) {
+            return EMPTY;
+        }
+        int segments = 1;
+        for (int i = 0; i < prefix.length(); i++) {
+            if (prefix.charAt(i) == '_') {
+                segments++;
+            }
+        }
+        return segments >= args.length ? EMPTY : Arrays.copyOfRange(args, segments, args.length);
+    }
+
+    @Override
+    public String toString() {
+        return params;
+    }
+}
@@ -2,6 +2,8 @@ package com.ghostchu.quickshop.papi.impl;
 
 import com.ghostchu.quickshop.QuickShop;
 import com.ghostchu.quickshop.papi.PAPISubHandler;
+import com.ghostchu.quickshop.papi.PlaceholderQuery;
+import org.bukkit.OfflinePlayer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -19,10 +21,20 @@ public class MetadataPAPI implements PAPISubHandler {
         return "metadata";
     }
 
+    @Override
+    @Nullable
+    public String handle(@NotNull OfflinePlayer player, @NotNull PlaceholderQuery query) {
+        return handleArgs(player.getUniqueId(), query.getArgsAfter(getPrefix()));
+    }
+
     @Override
     @Nullable
     public String handle0(@NotNull UUID player, @NotNull String paramsTrimmed) {
-        String[] args = paramsTrimmed.split("_");
+        return handleArgs(player, paramsTrimmed.split("_"));
+    }
+
+    @Nullable
+    private String handleArgs(@NotNull UUID player, @NotNull String[] args) {
         if (args.length < 1) {
             return null;
         }
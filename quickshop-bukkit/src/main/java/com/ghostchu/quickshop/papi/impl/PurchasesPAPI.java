@@ -6,7 +6,9 @@ import com.ghostchu.quickshop.api.shop.ShopType;
 import com.ghostchu.quickshop.database.MetricQuery;
 import com.ghostchu.quickshop.database.SimpleDatabaseHelperV2;
 import com.ghostchu.quickshop.papi.PAPISubHandler;
+import com.ghostchu.quickshop.papi.PlaceholderQuery;
 import org.apache.commons.lang3.StringUtils;
+import org.bukkit.OfflinePlayer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -30,10 +32,20 @@ public class PurchasesPAPI implements PAPISubHandler {
         return "metrics_recent_purchases";
     }
 
+    @Override
+    @Nullable
+    public String handle(@NotNull OfflinePlayer player, @NotNull PlaceholderQuery query) {
+        return handleArgs(player.getUniqueId(), query.getArgsAfter(getPrefix()));
+    }
+
     @Override
     @Nullable
     public String handle0(@NotNull UUID player, @NotNull String paramsTrimmed) {
-        String[] args = paramsTrimmed.split("_");
+        return handleArgs(player, paramsTrimmed.split("_"));
+    }
+
+    @Nullable
+    private String handleArgs(@NotNull UUID player, @NotNull String[] args) {
         if (args.length < 1) {
             return null;
         }
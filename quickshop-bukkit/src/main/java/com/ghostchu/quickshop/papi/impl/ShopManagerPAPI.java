@@ -5,6 +5,8 @@ import com.ghostchu.quickshop.api.shop.Shop;
 import com.ghostchu.quickshop.api.shop.ShopManager;
 import com.ghostchu.quickshop.api.shop.ShopType;
 import com.ghostchu.quickshop.papi.PAPISubHandler;
+import com.ghostchu.quickshop.papi.PlaceholderQuery;
+import org.bukkit.OfflinePlayer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -25,10 +27,20 @@ public class ShopManagerPAPI implements PAPISubHandler {
         return "shopmanager";
     }
 
+    @Override
+    @Nullable
+    public String handle(@NotNull OfflinePlayer player, @NotNull PlaceholderQuery query) {
+        return handleArgs(player.getUniqueId(), query.getArgsAfter(getPrefix()));
+    }
+
     @Override
     @Nullable
     public String handle0(@NotNull UUID player, @NotNull String paramsTrimmed) {
-        String[] args = paramsTrimmed.split("_");
+        return handleArgs(player, paramsTrimmed.split("_"));
+    }
+
+    @Nullable
+    private String handleArgs(@NotNull UUID player, @NotNull String[] args) {
         if (args.length < 1) {
             return null;
         }
@@ -7,7 +7,9 @@ import com.ghostchu.quickshop.api.shop.ShopType;
 import com.ghostchu.quickshop.database.MetricQuery;
 import com.ghostchu.quickshop.database.SimpleDatabaseHelperV2;
 import com.ghostchu.quickshop.papi.PAPISubHandler;
+import com.ghostchu.quickshop.papi.PlaceholderQuery;
 import org.apache.commons.lang3.StringUtils;
+import org.bukkit.OfflinePlayer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -31,10 +33,20 @@ public class TransactionAmountPAPI implements PAPISubHandler {
         return "metrics_recent_transactionamount";
     }
 
+    @Override
+    @Nullable
+    public String handle(@NotNull OfflinePlayer player, @NotNull PlaceholderQuery query) {
+        return handleArgs(player.getUniqueId(), query.getArgsAfter(getPrefix()));
+    }
+
     @Override
     @Nullable
     public String handle0(@NotNull UUID player, @NotNull String paramsTrimmed) {
-        String[] args = paramsTrimmed.split("_");
+        return handleArgs(player, paramsTrimmed.split("_"));
+    }
+
+    @Nullable
+    private String handleArgs(@NotNull UUID player, @NotNull String[] args) {
         if (args.length < 1) {
             return null;
         }
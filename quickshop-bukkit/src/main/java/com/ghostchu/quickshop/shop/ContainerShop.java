@@ -28,6 +28,7 @@ import com.ghostchu.quickshop.util.Util;
 import com.ghostchu.quickshop.util.logger.Log;
 import com.ghostchu.quickshop.util.logging.container.ShopRemoveLog;
 import com.ghostchu.quickshop.util.performance.PerfMonitor;
+import com.ghostchu.quickshop.watcher.DisplayAutoDespawnWatcher;
 import com.ghostchu.simplereloadlib.ReloadResult;
 import com.ghostchu.simplereloadlib.Reloadable;
 import com.google.common.collect.ImmutableList;
@@ -58,9 +59,7 @@ import java.time.Duration;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * ChestShop core
@@ -71,6 +70,8 @@ public class ContainerShop implements Shop, Reloadable {
     @SuppressWarnings({"AliDeprecation", "deprecation"})
     private static final NamespacedKey LEGACY_SHOP_NAMESPACED_KEY = new NamespacedKey("quickshop", "shopsign");
     private static final String LEGACY_SHOP_SIGN_RECOGNIZE_PATTERN = "§d§o ";
+    private static final BlockFace[] SIGN_FACES = {BlockFace.EAST, BlockFace.NORTH, BlockFace.SOUTH, BlockFace.WEST};
+    private static final int SIGN_FACES_UNKNOWN = -1;
     @NotNull
     private final Location location;
     private final YamlConfiguration extra;
@@ -125,6 +126,10 @@ public class ContainerShop implements Shop, Reloadable {
 
     @NotNull
     private Benefit benefit;
+    // Bit mask of SIGN_FACES that have a validated shop sign, and the faces that have other signs shifted by SIGN_FACES.length, main thread only
+    private int signFacesCache = SIGN_FACES_UNKNOWN;
+    // Whether a sign update is already waiting for the owner name lookup
+    private final AtomicBoolean ownerNameUpdatePending = new AtomicBoolean();
 
     ContainerShop(@NotNull ContainerShop s) {
         Util.ensureThread(false);
@@ -395,6 +400,15 @@ public class ContainerShop implements Shop, Reloadable {
             return;
         }
 
+        DisplayAutoDespawnWatcher despawnWatcher = plugin.getDisplayAutoDespawnWatcher();
+        if (despawnWatcher != null && !despawnWatcher.isWatched(getLocation())) {
+            /* No player nearby, the watcher will spawn it when someone comes. */
+            if (this.displayItem.isSpawned()) {
+                this.displayItem.remove();
+            }
+            return;
+        }
+
         if (!this.displayItem.isSpawned()) {
             /* Not spawned yet. */
             displayItem.spawn();
@@ -962,32 +976,76 @@ public class ContainerShop implements Shop, Reloadable {
     @Override
     public @NotNull List<Sign> getSigns() {
         Util.ensureThread(false);
-        List<Sign> signs = new ArrayList<>(4);
         if (this.getLocation().getWorld() == null) {
             return Collections.emptyList();
         }
-        Block[] blocks = new Block[4];
-        blocks[0] = location.getBlock().getRelative(BlockFace.EAST);
-        blocks[1] = location.getBlock().getRelative(BlockFace.NORTH);
-        blocks[2] = location.getBlock().getRelative(BlockFace.SOUTH);
-        blocks[3] = location.getBlock().getRelative(BlockFace.WEST);
-        for (Block b : blocks) {
-            if (b == null) {
-                continue;
+        int cachedFaces = this.signFacesCache;
+        if (cachedFaces != SIGN_FACES_UNKNOWN) {
+            List<Sign> signs = getCachedSigns(cachedFaces);
+            if (signs != null) {
+                return signs;
             }
-            BlockState state = PaperLib.getBlockState(b, false).getState();
+        }
+        List<Sign> signs = new ArrayList<>(4);
+        int faces = 0;
+        Block block = location.getBlock();
+        for (int i = 0; i < SIGN_FACES.length; i++) {
+            BlockState state = PaperLib.getBlockState(block.getRelative(SIGN_FACES[i]), false).getState();
             if (!(state instanceof Sign sign)) {
                 continue;
             }
             if (isShopSign(sign)) {
                 claimShopSign(sign);
                 signs.add(sign);
+                faces |= 1 << i;
+            } else {
+                faces |= 1 << (i + SIGN_FACES.length);
             }
         }
+        this.signFacesCache = faces;
+        return signs;
+    }
 
+    /**
+     * Getting the signs on the cached positions, only the signs that already validated and claimed will be cached.
+     * The block types of all faces are checked first, a snapshot is only taken for the cached shop signs.
+     *
+     * @param faces The cached faces mask
+     * @return The signs, or null if any cached sign is gone or a new sign appeared and the positions need a rescan
+     */
+    @Nullable
+    private List<Sign> getCachedSigns(int faces) {
+        List<Sign> signs = new ArrayList<>(Integer.bitCount(faces & ((1 << SIGN_FACES.length) - 1)));
+        Block block = location.getBlock();
+        for (int i = 0; i < SIGN_FACES.length; i++) {
+            Block relative = block.getRelative(SIGN_FACES[i]);
+            boolean isSign = Tag.SIGNS.isTagged(relative.getType());
+            if ((faces & (1 << i)) == 0) {
+                if (isSign && (faces & (1 << (i + SIGN_FACES.length))) == 0) {
+                    // Placed without events (plugins, WorldEdit, etc.)
+                    return null;
+                }
+                continue;
+            }
+            if (!isSign) {
+                // Broken without events (explosions, plugins, etc.)
+                return null;
+            }
+            if (!(PaperLib.getBlockState(relative, false).getState() instanceof Sign sign)) {
+                return null;
+            }
+            signs.add(sign);
+        }
         return signs;
     }
 
+    /**
+     * Drop the cached sign positions, call it when the blocks around the shop changed.
+     */
+    public void invalidateSignsCache() {
+        this.signFacesCache = SIGN_FACES_UNKNOWN;
+    }
+
     /**
      * @return The list of players who can manage the shop.
      */
@@ -1280,6 +1338,8 @@ public class ContainerShop implements Shop, Reloadable {
             Log.debug("Dupe load request, canceled.");
             return;
         }
+        // The blocks may changed when the chunk unloaded
+        invalidateSignsCache();
         Map<Location, Shop> shopsInChunk = plugin.getShopManager().getShops(getLocation().getChunk());
         if (shopsInChunk == null || !shopsInChunk.containsValue(this)) {
             throw new IllegalStateException("Shop must register into ShopManager before loading.");
@@ -1341,26 +1401,43 @@ public class ContainerShop implements Shop, Reloadable {
 
     @Override
     public @NotNull Component ownerName(boolean forceUsername, @NotNull ProxiedLocale locale) {
-        String playerName;
-        if (plugin.getConfig().getBoolean("shops.async-owner-name-fetch", false)) {
-            CompletableFuture<String> future = CompletableFuture
-                    .supplyAsync(() -> plugin.getPlayerFinder().uuid2Name(owner), QuickExecutor.getCommonExecutor());
-            try {
-                playerName = future.get(20, TimeUnit.MILLISECONDS);
-            } catch (InterruptedException | ExecutionException | TimeoutException e) {
-                playerName = "N/A";
-            }
-        } else {
-            playerName = plugin.getPlayerFinder().uuid2Name(this.getOwner());
-        }
         Component name;
-        if (playerName == null) {
-            name = plugin.text().of("unknown-owner").forLocale(locale.getLocale());
-        } else {
-            name = Component.text(playerName);
-        }
         if (!forceUsername && isUnlimited()) {
             name = plugin.text().of("admin-shop").forLocale(locale.getLocale());
+        } else {
+            String playerName = null;
+            boolean loading = false;
+            // Never block the main thread for an uncached owner, render a placeholder and update the sign later.
+            // shop.async-owner-name-fetch only decides whether the other threads do the same instead of waiting
+            if (Bukkit.isPrimaryThread() || plugin.getConfig().getBoolean("shop.async-owner-name-fetch", false)) {
+                CompletableFuture<String> future = plugin.getPlayerFinder().uuid2NameAsync(getOwner());
+                if (future.isDone()) {
+                    playerName = future.isCompletedExceptionally() ? null : future.join();
+                } else {
+                    loading = true;
+                    // Every viewer and locale renders the name, only update the signs once per lookup
+                    if (ownerNameUpdatePending.compareAndSet(false, true)) {
+                        future.whenComplete((ignored, throwable) -> {
+                            ownerNameUpdatePending.set(false);
+                            Util.mainThreadRun(() -> {
+                                //Shop may be deleted or unloaded when waiting
+                                if (!isDeleted() && isLoaded()) {
+                                    plugin.getSignUpdateWatcher().scheduleSignUpdate(this);
+                                }
+                            });
+                        });
+                    }
+                }
+            } else {
+                playerName = plugin.getPlayerFinder().uuid2Name(this.getOwner());
+            }
+            if (loading) {
+                name = plugin.text().of("owner-name-loading").forLocale(locale.getLocale());
+            } else if (playerName == null) {
+                name = plugin.text().of("unknown-owner").forLocale(locale.getLocale());
+            } else {
+                name = Component.text(playerName);
+            }
         }
         ShopOwnerNameGettingEvent event = new ShopOwnerNameGettingEvent(this, getOwner(), name);
         event.callEvent();
@@ -1389,14 +1466,14 @@ public class ContainerShop implements Shop, Reloadable {
     @Override
     public boolean playerAuthorize(@NotNull UUID player, @NotNull Plugin namespace, @NotNull String permission) {
         if (player.equals(getOwner())) {
-            Log.permission("Check permission " + namespace.getName().toLowerCase(Locale.ROOT) + "." + permission + " for " + player + " -> " + "true");
+            Log.permission(() -> "Check permission " + namespace.getName().toLowerCase(Locale.ROOT) + "." + permission + " for " + player + " -> " + "true");
             return true;
         }
         String group = getPlayerGroup(player);
         boolean r = plugin.getShopPermissionManager().hasPermission(group, namespace, permission);
         ShopAuthorizeCalculateEvent event = new ShopAuthorizeCalculateEvent(this, player, namespace, permission, r);
         event.callEvent();
-        Log.permission("Check permission " + namespace.getName().toLowerCase(Locale.ROOT) + "." + permission + ": " + player + " -> " + event.getResult());
+        Log.permission(() -> "Check permission " + namespace.getName().toLowerCase(Locale.ROOT) + "." + permission + ": " + player + " -> " + event.getResult());
         return event.getResult();
 
     }
@@ -1436,7 +1513,7 @@ public class ContainerShop implements Shop, Reloadable {
                 result.add(uuidStringEntry.getKey());
             }
         }
-        Log.permission("Check permission " + namespace.getName().toLowerCase(Locale.ROOT) + "." + permission + ": " + CommonUtil.list2String(result.stream().map(UUID::toString).toList()));
+        Log.permission(() -> "Check permission " + namespace.getName().toLowerCase(Locale.ROOT) + "." + permission + ": " + CommonUtil.list2String(result.stream().map(UUID::toString).toList()));
         return result;
     }
 
@@ -1679,7 +1756,8 @@ public class ContainerShop implements Shop, Reloadable {
         }
         if (plugin.getSignHooker() != null) {
             Log.debug("Start sign broadcast...");
-            Bukkit.getScheduler().runTaskLater(plugin.getJavaPlugin(), () -> plugin.getSignHooker().updatePerPlayerShopSignBroadcast(getLocation(), this), 2);
+            // Queued and sent in batch by SignHooker
+            plugin.getSignHooker().updatePerPlayerShopSignBroadcast(getLocation(), this);
             Log.debug("Sign broadcast completed.");
         }
     }
@@ -0,0 +1,239 @@
+package com.ghostchu.quickshop.shop;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A compact per-world index of the blocks that may belong to a shop.
+ * <p>
+ * Every shop registers its container position and the four horizontal neighbours, which covers the other half of a
+ * double chest and the wall signs attached to it. A negative probe means there is definitely no shop here, so the
+ * hot paths (hoppers, redstone, etc.) can skip the cache and the block state lookup entirely.
+ * A positive probe is only a hint, the caller still needs to lookup the shop.
+ */
+public class ShopBlockIndex {
+    private static final int[][] NEIGHBOURS = {{0, 0}, {1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    // <World, Positions>
+    private final Map<String, PositionCounter> worlds = new ConcurrentHashMap<>();
+
+    /**
+     * Pack the block position into a long (26 bits x, 26 bits z, 12 bits y)
+     *
+     * @param x The block x
+     * @param y The block y
+     * @param z The block z
+     * @return The packed position
+     */
+    public static long pack(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+
+    /**
+     * Register a shop container position
+     *
+     * @param world    The world name
+     * @param location The shop location
+     */
+    public void add(@NotNull String world, @NotNull Location location) {
+        PositionCounter counter = worlds.computeIfAbsent(world, k -> new PositionCounter());
+        int x = location.getBlockX();
+        int y = location.getBlockY();
+        int z = location.getBlockZ();
+        synchronized (counter) {
+            for (int[] offset : NEIGHBOURS) {
+                counter.increment(pack(x + offset[0], y, z + offset[1]));
+            }
+        }
+    }
+
+    /**
+     * Unregister a shop container position
+     *
+     * @param world    The world name
+     * @param location The shop location
+     */
+    public void remove(@NotNull String world, @NotNull Location location) {
+        PositionCounter counter = worlds.get(world);
+        if (counter == null) {
+            return;
+        }
+        int x = location.getBlockX();
+        int y = location.getBlockY();
+        int z = location.getBlockZ();
+        synchronized (counter) {
+            for (int[] offset : NEIGHBOURS) {
+                counter.decrement(pack(x + offset[0], y, z + offset[1]));
+            }
+        }
+    }
+
+    /**
+     * Check if there may be a shop (include the attached blocks) at the location
+     *
+     * @param location The location
+     * @return false if there is definitely no shop, true if the shop need to be looked up
+     */
+    public boolean mayContainShop(@NotNull Location location) {
+        World world = location.getWorld();
+        if (world == null) {
+            return false;
+        }
+        return mayContainShop(world.getName(), location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+
+    /**
+     * Check if there may be a shop (include the attached blocks) at the position
+     *
+     * @param world The world name
+     * @param x     The block x
+     * @param y     The block y
+     * @param z     The block z
+     * @return false if there is definitely no shop, true if the shop need to be looked up
+     */
+    public boolean mayContainShop(@NotNull String world, int x, int y, int z) {
+        PositionCounter counter = worlds.get(world);
+        if (counter == null) {
+            return false;
+        }
+        synchronized (counter) {
+            return counter.contains(pack(x, y, z));
+        }
+    }
+
+    /**
+     * Getting the amount of indexed positions
+     *
+     * @return The amount of indexed positions
+     */
+    public int size() {
+        int size = 0;
+        for (PositionCounter counter : worlds.values()) {
+            synchronized (counter) {
+                size += counter.size;
+            }
+        }
+        return size;
+    }
+
+    public void clear() {
+        worlds.clear();
+    }
+
+    /**
+     * Open addressing long -> reference count map, no boxing on probing.
+     */
+    private static final class PositionCounter {
+        // Packed positions never reach this value since the x is limited by the world border
+        private static final long EMPTY = Long.MIN_VALUE;
+        private long[] keys;
+        private int[] counts;
+        private int mask;
+        private int size;
+
+        private PositionCounter() {
+            allocate(16);
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+
+        private void allocate(int capacity) {
+            this.keys = new long[capacity];
+            Arrays.fill(this.keys, EMPTY);
+            this.counts = new int[capacity];
+            this.mask = capacity - 1;
+        }
+
+        private int find(long key) {
+            int pos = mix(key) & mask;
+            long current;
+            while ((current = keys[pos]) != EMPTY) {
+                if (current == key) {
+                    return pos;
+                }
+                pos = (pos + 1) & mask;
+            }
+            return -1;
+        }
+
+        private boolean contains(long key) {
+            return find(key) != -1;
+        }
+
+        private void increment(long key) {
+            int pos = find(key);
+            if (pos != -1) {
+                counts[pos]++;
+                return;
+            }
+            if ((size + 1) * 2 > keys.length) {
+                rehash(keys.length * 2);
+            }
+            pos = mix(key) & mask;
+            while (keys[pos] != EMPTY) {
+                pos = (pos + 1) & mask;
+            }
+            keys[pos] = key;
+            counts[pos] = 1;
+            size++;
+        }
+
+        private void decrement(long key) {
+            int pos = find(key);
+            if (pos == -1) {
+                return;
+            }
+            if (--counts[pos] > 0) {
+                return;
+            }
+            size--;
+            // Shift the following entries back to keep the probe chains intact
+            int last;
+            while (true) {
+                last = pos;
+                pos = (pos + 1) & mask;
+                long current;
+                while (true) {
+                    current = keys[pos];
+                    if (current == EMPTY) {
+                        keys[last] = EMPTY;
+                        counts[last] = 0;
+                        return;
+                    }
+                    int slot = mix(current) & mask;
+                    if (last <= pos ? (last >= slot || slot > pos) : (last >= slot && slot > pos)) {
+                        break;
+                    }
+                    pos = (pos + 1) & mask;
+                }
+                keys[last] = current;
+                counts[last] = counts[pos];
+            }
+        }
+
+        private void rehash(int capacity) {
+            long[] oldKeys = this.keys;
+            int[] oldCounts = this.counts;
+            allocate(capacity);
+            for (int i = 0; i < oldKeys.length; i++) {
+                long key = oldKeys[i];
+                if (key == EMPTY) {
+                    continue;
+                }
+                int pos = mix(key) & mask;
+                while (keys[pos] != EMPTY) {
+                    pos = (pos + 1) & mask;
+                }
+                keys[pos] = key;
+                counts[pos] = oldCounts[i];
+            }
+        }
+    }
+}
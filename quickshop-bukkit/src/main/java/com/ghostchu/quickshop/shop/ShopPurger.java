@@ -11,6 +11,7 @@ import com.ghostchu.quickshop.util.logger.Log;
 import com.ghostchu.quickshop.util.performance.BatchBukkitExecutor;
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
 import java.io.IOException;
@@ -25,6 +26,8 @@ import java.util.UUID;
 public class ShopPurger {
     private final QuickShop plugin;
     private volatile boolean executing;
+    @Nullable
+    private volatile BatchBukkitExecutor<Shop> purgeExecutor;
 
     public ShopPurger(QuickShop plugin) {
         this.plugin = plugin;
@@ -42,6 +45,27 @@ public class ShopPurger {
         }
     }
 
+    /**
+     * Cancel the running purge task, the shops that already purged won't be restored.
+     *
+     * @return true if there is a running purge task
+     */
+    public synchronized boolean cancel() {
+        BatchBukkitExecutor<Shop> executor = this.purgeExecutor;
+        if (executor == null || executor.isFinished() || executor.isCancelled()) {
+            return false;
+        }
+        executor.cancel();
+        this.purgeExecutor = null;
+        plugin.logger().info("[Shop Purger] Purge task cancelled, {}/{} shops have been purged.", executor.getProcessed(), executor.getTotal());
+        executing = false;
+        return true;
+    }
+
+    public boolean isExecuting() {
+        return executing;
+    }
+
     private void run() {
         Util.ensureThread(true);
         executing = true;
@@ -53,6 +77,7 @@ public class ShopPurger {
                 plugin.logger().info("[Shop Purger] We have backup shop data as {}, if you ran into any trouble, please rename it to recovery.txt then use /qs recovery in console to rollback!", file.getName());
             } catch (SQLException | IOException e) {
                 plugin.logger().warn("Failed to backup database, purge cancelled.", e);
+                executing = false;
                 return;
             }
 
@@ -90,8 +115,17 @@ public class ShopPurger {
             pendingRemovalShops.add(shop);
         }
 
-        BatchBukkitExecutor<Shop> purgeExecutor = new BatchBukkitExecutor<>();
+        if (pendingRemovalShops.isEmpty()) {
+            plugin.logger().info("[Shop Purger] No shops need to be purged.");
+            executing = false;
+            return;
+        }
+        // Purge is a background job, let the player actions go first
+        BatchBukkitExecutor<Shop> purgeExecutor = new BatchBukkitExecutor<>(15, BatchBukkitExecutor.Priority.LOW);
         purgeExecutor.addTasks(pendingRemovalShops);
+        purgeExecutor.setProgressListener(100, (processed, total) ->
+                plugin.logger().info("[Shop Purger] Purging shops... {}/{}", processed, total));
+        this.purgeExecutor = purgeExecutor;
         purgeExecutor.startHandle(plugin.getJavaPlugin(), (shop) -> {
             shop.delete(false);
             if (returnCreationFee) {
@@ -110,6 +144,7 @@ public class ShopPurger {
             plugin.logger().info("[Shop Purger] Total shop {} has been purged, used {}ms",
                     pendingRemovalShops.size(),
                     usedTime);
+            executing = false;
         });
     }
 }
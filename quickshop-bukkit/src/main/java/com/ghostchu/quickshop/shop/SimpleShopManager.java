@@ -70,6 +70,8 @@ public class SimpleShopManager implements ShopManager, Reloadable {
     private static final DecimalFormat STANDARD_FORMATTER = new DecimalFormat("#.#########");
     private final Map<String, Map<ShopChunk, Map<Location, Shop>>> shops = Maps.newConcurrentMap();
     private final Set<Shop> loadedShops = Sets.newConcurrentHashSet();
+    @Getter
+    private final ShopBlockIndex shopBlockIndex = new ShopBlockIndex();
     private final InteractiveManager interactiveManager;
     private final QuickShop plugin;
     private final Cache<UUID, Shop> shopRuntimeUUIDCaching =
@@ -528,7 +530,12 @@ public class SimpleShopManager implements ShopManager, Reloadable {
         // That chunk data hasn't been created yet - Create it!
         // Put it in the world
         // Put the shop in its location in the chunk list.
-        inChunk.put(shop.getLocation(), shop);
+        if (inChunk.put(shop.getLocation(), shop) == null) {
+            shopBlockIndex.add(world, shop.getLocation());
+        }
+        if (plugin.getShopCache() != null) {
+            plugin.getShopCache().invalidateShop(shop.getLocation());
+        }
     }
 
     @Override
@@ -563,6 +570,7 @@ public class SimpleShopManager implements ShopManager, Reloadable {
         }
         this.interactiveManager.reset();
         this.shops.clear();
+        this.shopBlockIndex.clear();
     }
 
     /**
@@ -798,6 +806,17 @@ public class SimpleShopManager implements ShopManager, Reloadable {
         }
     }
 
+    @Override
+    public int getShopCount() {
+        int count = 0;
+        for (final Map<ShopChunk, Map<Location, Shop>> shopMapData : getShops().values()) {
+            for (final Map<Location, Shop> shopData : shopMapData.values()) {
+                count += shopData.size();
+            }
+        }
+        return count;
+    }
+
     /**
      * Get all loaded shops.
      *
@@ -937,6 +956,9 @@ public class SimpleShopManager implements ShopManager, Reloadable {
             Log.debug("Location is null.");
             return null;
         }
+        if (!shopBlockIndex.mayContainShop(loc)) {
+            return null;
+        }
         if (useCache) {
             if (plugin.getShopCache() != null) {
                 return plugin.getShopCache().find(loc, true);
@@ -1176,7 +1198,12 @@ public class SimpleShopManager implements ShopManager, Reloadable {
         if (inChunk == null) {
             return;
         }
-        inChunk.remove(loc);
+        if (inChunk.remove(loc) != null) {
+            shopBlockIndex.remove(world, loc);
+        }
+        if (plugin.getShopCache() != null) {
+            plugin.getShopCache().invalidateShop(loc);
+        }
     }
 
     /**
@@ -63,7 +63,7 @@ public class SimpleShopPermissionManager implements ShopPermissionManager, Reloa
         }
         String fullPermissionPath = namespace.getName().toLowerCase(Locale.ROOT) + "." + permission;
         boolean result = permissionMapping.get(group).contains(fullPermissionPath);
-        Log.permission("Check permission " + fullPermissionPath + " for group " + group + ": " + result);
+        Log.permission(() -> "Check permission " + fullPermissionPath + " for group " + group + ": " + result);
         return result;
     }
 
@@ -11,18 +11,21 @@ import com.ghostchu.quickshop.util.logger.Log;
 import com.ghostchu.simplereloadlib.ReloadResult;
 import com.ghostchu.simplereloadlib.ReloadStatus;
 import com.ghostchu.simplereloadlib.Reloadable;
-import com.google.common.collect.Lists;
 import com.google.gson.JsonSyntaxException;
 import lombok.Getter;
 import lombok.Setter;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.NamespacedKey;
 import org.bukkit.entity.Entity;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataType;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.List;
+
 /**
  * @author Netherfoam
  * A display item, that spawns a block above the chest and cannot be interacted
@@ -31,6 +34,8 @@ import org.jetbrains.annotations.Nullable;
 public abstract class AbstractDisplayItem implements Reloadable {
 
     protected static final QuickShop PLUGIN = QuickShop.getInstance();
+    private static final NamespacedKey DISPLAY_ITEM_KEY = new NamespacedKey(PLUGIN.getJavaPlugin(), "display-item");
+    private static final String LEGACY_FLAG_FIELD = "shopLocation";
     @Setter
     @Getter
     private static volatile boolean isNotSupportVirtualItem = false;
@@ -86,34 +91,46 @@ public abstract class AbstractDisplayItem implements Reloadable {
             return false;
         }
         ItemMeta iMeta = itemStack.getItemMeta();
+        if (iMeta.getPersistentDataContainer().has(DISPLAY_ITEM_KEY, PersistentDataType.STRING)) {
+            return true;
+        }
+        // Legacy display items that marked by lore
+        return readLegacyProtectionFlag(iMeta) != null;
+    }
+
+    /**
+     * Read the protection flag from the lore, used by the display items that created by old versions.
+     *
+     * @param iMeta The ItemMeta
+     * @return The protection flag, null if not exists
+     */
+    @Nullable
+    private static ShopProtectionFlag readLegacyProtectionFlag(@NotNull ItemMeta iMeta) {
         if (!iMeta.hasLore()) {
-            return false;
+            return null;
         }
-        String defaultMark = ShopProtectionFlag.getDefaultMark();
-        for (String lore : iMeta.getLore()) {
+        List<String> lores = iMeta.getLore();
+        if (lores == null) {
+            return null;
+        }
+        for (String lore : lores) {
+            // Cheap filter, don't parse the lore that can't be a protection flag
+            if (!lore.contains(LEGACY_FLAG_FIELD)) {
+                continue;
+            }
             try {
                 if (!MsgUtil.isJson(lore)) {
                     continue;
                 }
                 ShopProtectionFlag shopProtectionFlag = JsonUtil.getGson().fromJson(lore, ShopProtectionFlag.class);
-                if (shopProtectionFlag == null) {
-                    continue;
-                }
-                if (defaultMark.equals(ShopProtectionFlag.getMark())) {
-                    return true;
-                }
-                if (shopProtectionFlag.getShopLocation() != null) {
-                    return true;
-                }
-                if (shopProtectionFlag.getItemStackString() != null) {
-                    return true;
+                if (shopProtectionFlag != null) {
+                    return shopProtectionFlag;
                 }
             } catch (JsonSyntaxException e) {
                 // Ignore
             }
         }
-
-        return false;
+        return null;
     }
 
     protected void init() {
@@ -139,40 +156,38 @@ public abstract class AbstractDisplayItem implements Reloadable {
         if (getNowUsing() == DisplayType.VIRTUALITEM) {
             return false;
         }
-        if (!itemStack.hasItemMeta()) {
+        String guardedShopLocation = getGuardedShopLocation(itemStack);
+        if (guardedShopLocation == null) {
             return false;
         }
-        ItemMeta iMeta = itemStack.getItemMeta();
-        if (!iMeta.hasLore()) {
-            return false;
+        if (guardedShopLocation.equals(shop.getLocation().toString())) {
+            return true;
         }
-        String defaultMark = ShopProtectionFlag.getDefaultMark();
-        String shopLocation = shop.getLocation().toString();
-        String attachedShopLocation = "null";
-        if (shop.isRealDouble()) {
-            attachedShopLocation = shop.getAttachedShop().getLocation().toString();
+        return shop.isRealDouble() && guardedShopLocation.equals(shop.getAttachedShop().getLocation().toString());
+    }
+
+    /**
+     * Read the location of the shop that the display item belongs to
+     *
+     * @param itemStack Target ItemStack
+     * @return The shop location in {@link org.bukkit.Location#toString()} format, null if it isn't a display item
+     */
+    @Nullable
+    static String getGuardedShopLocation(@NotNull final ItemStack itemStack) {
+        if (!itemStack.hasItemMeta()) {
+            return null;
         }
-        for (String lore : iMeta.getLore()) {
-            try {
-                if (!MsgUtil.isJson(lore)) {
-                    continue;
-                }
-                ShopProtectionFlag shopProtectionFlag = JsonUtil.getGson().fromJson(lore, ShopProtectionFlag.class);
-                if (shopProtectionFlag == null) {
-                    continue;
-                }
-                if (!ShopProtectionFlag.getMark().equals(defaultMark)) {
-                    continue;
-                }
-                if (shopProtectionFlag.getShopLocation().equals(shopLocation)
-                        || shopProtectionFlag.getShopLocation().equals(attachedShopLocation)) {
-                    return true;
-                }
-            } catch (JsonSyntaxException e) {
-                // Ignore
-            }
+        ItemMeta iMeta = itemStack.getItemMeta();
+        String guardedShopLocation = iMeta.getPersistentDataContainer().get(DISPLAY_ITEM_KEY, PersistentDataType.STRING);
+        if (guardedShopLocation != null) {
+            return guardedShopLocation;
+        }
+        // Legacy display items that marked by lore
+        ShopProtectionFlag shopProtectionFlag = readLegacyProtectionFlag(iMeta);
+        if (shopProtectionFlag == null) {
+            return null;
         }
-        return false;
+        return shopProtectionFlag.getShopLocation();
     }
 
     /**
@@ -196,9 +211,8 @@ public abstract class AbstractDisplayItem implements Reloadable {
         if (!PLUGIN.getConfig().getBoolean("shop.display-item-use-name")) {
             iMeta.setDisplayName(null);
         }
-        ShopProtectionFlag shopProtectionFlag = createShopProtectionFlag(itemStack, shop);
-        String protectFlag = JsonUtil.getGson().toJson(shopProtectionFlag);
-        iMeta.setLore(Lists.newArrayList(protectFlag));
+        iMeta.setLore(null);
+        iMeta.getPersistentDataContainer().set(DISPLAY_ITEM_KEY, PersistentDataType.STRING, shop.getLocation().toString());
         itemStack.setItemMeta(iMeta);
         return itemStack;
     }
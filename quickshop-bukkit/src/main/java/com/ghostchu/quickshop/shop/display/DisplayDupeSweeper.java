@@ -0,0 +1,131 @@
+package com.ghostchu.quickshop.shop.display;
+
+import com.ghostchu.quickshop.QuickShop;
+import com.ghostchu.quickshop.api.shop.Shop;
+import com.ghostchu.quickshop.shop.ContainerShop;
+import com.ghostchu.quickshop.shop.SimpleShopChunk;
+import com.ghostchu.quickshop.util.Util;
+import com.ghostchu.quickshop.util.logger.Log;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Item;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remove the duplicated display items of all shops in a chunk in a single pass.
+ * <p>
+ * The item entities in the chunk are scanned once and grouped by the guarded shop location, so the cost depends on
+ * the amount of entities in the chunk instead of shops × nearby entities queries.
+ */
+final class DisplayDupeSweeper {
+    // A chunk won't be swept again within this interval, the other shops in the chunk already got their dupes removed
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int MAX_TRACKED_CHUNKS = 4096;
+    // Main thread only
+    private static final Map<SimpleShopChunk, Long> LAST_SWEEP = new HashMap<>();
+
+    private DisplayDupeSweeper() {
+    }
+
+    /**
+     * Sweep the chunk that the shop located in if it hasn't been swept recently
+     *
+     * @param shop The shop that requesting
+     * @return true if any duplicated display item of this shop has been removed
+     */
+    static boolean sweep(@NotNull Shop shop) {
+        Util.ensureThread(false);
+        Location location = shop.getLocation();
+        if (location.getWorld() == null) {
+            return false;
+        }
+        SimpleShopChunk chunkKey = new SimpleShopChunk(location.getWorld().getName(), location.getBlockX() >> 4, location.getBlockZ() >> 4);
+        long now = System.nanoTime();
+        Long lastSweep = LAST_SWEEP.get(chunkKey);
+        if (lastSweep != null && now - lastSweep < SWEEP_INTERVAL_NANOS) {
+            return false;
+        }
+        if (LAST_SWEEP.size() >= MAX_TRACKED_CHUNKS) {
+            LAST_SWEEP.clear();
+        }
+        LAST_SWEEP.put(chunkKey, now);
+        return sweepChunk(location.getChunk(), shop) > 0;
+    }
+
+    /**
+     * Remove the duplicated display items of all shops in the chunk
+     *
+     * @param chunk     The chunk
+     * @param requester The shop that requesting, or null
+     * @return The amount of removed display items that belong to the requester
+     */
+    private static int sweepChunk(@NotNull Chunk chunk, @Nullable Shop requester) {
+        // <Shop location, Display items>
+        Map<String, List<Item>> guardedItems = null;
+        for (Entity entity : chunk.getEntities()) {
+            if (!(entity instanceof Item item)) {
+                continue;
+            }
+            String guardedShopLocation = AbstractDisplayItem.getGuardedShopLocation(item.getItemStack());
+            if (guardedShopLocation == null) {
+                continue;
+            }
+            if (guardedItems == null) {
+                guardedItems = new HashMap<>();
+            }
+            guardedItems.computeIfAbsent(guardedShopLocation, k -> new ArrayList<>(1)).add(item);
+        }
+        if (guardedItems == null) {
+            return 0;
+        }
+        Map<Location, Shop> shops = QuickShop.getInstance().getShopManager().getShops(chunk);
+        if (shops == null) {
+            return 0;
+        }
+        int removedForRequester = 0;
+        for (Shop shop : shops.values()) {
+            if (shop.isLeftShop() || !(shop instanceof ContainerShop containerShop)) {
+                continue;
+            }
+            if (!(containerShop.getDisplayItem() instanceof RealDisplayItem displayItem)) {
+                continue;
+            }
+            Entity display = displayItem.getDisplay();
+            if (display == null) {
+                continue;
+            }
+            int removed = removeDupes(guardedItems.get(shop.getLocation().toString()), display);
+            if (shop.isRealDouble()) {
+                removed += removeDupes(guardedItems.get(shop.getAttachedShop().getLocation().toString()), display);
+            }
+            if (shop == requester) {
+                removedForRequester = removed;
+            }
+        }
+        return removedForRequester;
+    }
+
+    private static int removeDupes(@Nullable List<Item> items, @NotNull Entity display) {
+        if (items == null) {
+            return 0;
+        }
+        int removed = 0;
+        Iterator<Item> iterator = items.iterator();
+        while (iterator.hasNext()) {
+            Item item = iterator.next();
+            if (item.getUniqueId().equals(display.getUniqueId())) {
+                continue;
+            }
+            Log.debug("Removing a duped ItemEntity " + item.getUniqueId() + " at " + item.getLocation());
+            item.remove();
+            iterator.remove();
+            removed++;
+        }
+        return removed;
+    }
+}
@@ -13,17 +13,13 @@ import io.papermc.lib.PaperLib;
 import lombok.ToString;
 import org.bukkit.Location;
 import org.bukkit.entity.Entity;
-import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Item;
 import org.bukkit.event.player.PlayerTeleportEvent;
 import org.bukkit.util.Vector;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Objects;
-import java.util.UUID;
 
 @ToString
 public class RealDisplayItem extends AbstractDisplayItem {
@@ -158,33 +154,8 @@ public class RealDisplayItem extends AbstractDisplayItem {
             return false;
         }
 
-        boolean removed = false;
-
-        List<Entity> elist = new ArrayList<>(item.getNearbyEntities(1.5, 1.5, 1.5));
-        if (shop.isRealDouble()) {
-            elist.addAll(item.getWorld()
-                    .getNearbyEntities(Objects.requireNonNull(getDoubleShopDisplayLocations(true)), 1.5,
-                            1.5, 1.5));
-            elist.addAll(item.getWorld()
-                    .getNearbyEntities(Objects.requireNonNull(getDoubleShopDisplayLocations(false)),
-                            1.5, 1.5, 1.5));
-        }
-
-        for (Entity entity : elist) {
-            if (entity.getType() != EntityType.DROPPED_ITEM) {
-                continue;
-            }
-            Item eItem = (Item) entity;
-            UUID displayUUID = this.item.getUniqueId();
-            if (!eItem.getUniqueId().equals(displayUUID)) {
-                if (AbstractDisplayItem.checkIsTargetShopDisplay(eItem.getItemStack(), this.shop)) {
-                    Log.debug("Removing a duped ItemEntity " + eItem.getUniqueId() + " at " + eItem.getLocation());
-                    entity.remove();
-                    removed = true;
-                }
-            }
-        }
-        return removed;
+        // Sweep the whole chunk once instead of querying the nearby entities for every shop
+        return DisplayDupeSweeper.sweep(shop);
     }
 
     @Override
@@ -9,6 +9,7 @@ import com.comphenix.protocol.events.PacketContainer;
 import com.comphenix.protocol.events.PacketEvent;
 import com.comphenix.protocol.reflect.StructureModifier;
 import com.comphenix.protocol.utility.MinecraftVersion;
+import com.comphenix.protocol.wrappers.ChunkCoordIntPair;
 import com.comphenix.protocol.wrappers.WrappedChatComponent;
 import com.comphenix.protocol.wrappers.WrappedDataValue;
 import com.comphenix.protocol.wrappers.WrappedDataWatcher;
@@ -25,6 +26,10 @@ import com.ghostchu.quickshop.util.logger.Log;
 import com.ghostchu.simplereloadlib.ReloadResult;
 import com.ghostchu.simplereloadlib.ReloadStatus;
 import com.ghostchu.simplereloadlib.Reloadable;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
 import org.bukkit.Bukkit;
 import org.bukkit.Chunk;
@@ -33,13 +38,25 @@ import org.bukkit.Material;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerPortalEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
 import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -50,8 +67,8 @@ public class VirtualDisplayItem extends AbstractDisplayItem implements Reloadabl
     private static PacketAdapter packetAdapter = null;
     //unique EntityID
     private final int entityID = COUNTER.decrementAndGet();
-    //The List which store packet sender
-    private final Set<UUID> packetSenders = new ConcurrentSkipListSet<>();
+    //The players who can see this display item, filled from the packet thread so only the unique ids are kept
+    private final Set<UUID> packetSenders = ConcurrentHashMap.newKeySet();
     //cache chunk x and z
     private SimpleShopChunk chunkLocation;
     private volatile boolean isDisplay;
@@ -175,7 +192,7 @@ public class VirtualDisplayItem extends AbstractDisplayItem implements Reloadabl
 
     private void initFakeDropItemPacket() {
         fakeItemSpawnPacket = PacketFactory.createFakeItemSpawnPacket(entityID, getDisplayLocation());
-        fakeItemMetaPacket = PacketFactory.createFakeItemMetaPacket(entityID, getOriginalItemStack().clone());
+        fakeItemMetaPacket = PacketFactory.createFakeItemMetaPacket(entityID, getOriginalItemStack());
         fakeItemVelocityPacket = PacketFactory.createFakeItemVelocityPacket(entityID);
         fakeItemDestroyPacket = PacketFactory.createFakeItemDestroyPacket(entityID);
         initialized = true;
@@ -190,20 +207,13 @@ public class VirtualDisplayItem extends AbstractDisplayItem implements Reloadabl
         chunkLocation = new SimpleShopChunk(chunk.getWorld().getName(), chunk.getX(), chunk.getZ());
         VirtualDisplayItemManager.put(chunkLocation, this);
         if (Util.isLoaded(shop.getLocation())) {
-            //Let nearby player can saw fake item
-            Collection<Entity> entityCollection = shop.getLocation().getWorld().getNearbyEntities(shop.getLocation(), Bukkit.getViewDistance() * 16, shop.getLocation().getWorld().getMaxHeight(), Bukkit.getViewDistance() * 16);
-            for (Entity entity : entityCollection) {
-                if (entity instanceof Player) {
-                    packetSenders.add(entity.getUniqueId());
-                }
-            }
+            //Let the players who already received this chunk can saw fake item
+            VirtualDisplayItemManager.collectViewers(chunkLocation, packetSenders);
         }
     }
 
     public void sendFakeItem(@NotNull Player player) {
-        sendPacket(player, fakeItemSpawnPacket);
-        sendPacket(player, fakeItemMetaPacket);
-        sendPacket(player, fakeItemVelocityPacket);
+        PacketFactory.sendBundle(player, List.of(fakeItemSpawnPacket, fakeItemMetaPacket, fakeItemVelocityPacket));
     }
 
     private void sendPacket(@NotNull Player player, @NotNull PacketContainer packet) {
@@ -217,13 +227,10 @@ public class VirtualDisplayItem extends AbstractDisplayItem implements Reloadabl
     }
 
     private void sendPacketToAll(@NotNull PacketContainer packet) {
-        Iterator<UUID> iterator = packetSenders.iterator();
-        while (iterator.hasNext()) {
-            Player nextPlayer = Bukkit.getPlayer(iterator.next());
-            if (nextPlayer == null) {
-                iterator.remove();
-            } else {
-                sendPacket(nextPlayer, packet);
+        for (UUID uuid : packetSenders) {
+            Player player = Bukkit.getPlayer(uuid);
+            if (player != null) {
+                sendPacket(player, packet);
             }
         }
     }
@@ -236,6 +243,11 @@ public class VirtualDisplayItem extends AbstractDisplayItem implements Reloadabl
     public static class VirtualDisplayItemManager {
         private static final AtomicBoolean LOADED = new AtomicBoolean(false);
         private static final Map<SimpleShopChunk, List<VirtualDisplayItem>> CHUNKS_MAPPING = new ConcurrentHashMap<>();
+        // <Player unique id, The chunks that client loaded>
+        private static final Map<UUID, PlayerView> PLAYER_VIEWS = new ConcurrentHashMap<>();
+        private static PlayerViewListener playerListener = null;
+        // In chunks, 0 to follow the client view distance
+        private static volatile int renderDistance = 0;
 
         private VirtualDisplayItemManager() {
         }
@@ -251,15 +263,18 @@ public class VirtualDisplayItem extends AbstractDisplayItem implements Reloadabl
             }
             Log.debug("Loading VirtualDisplayItem chunks mapping manager...");
             if (packetAdapter == null) {
-                packetAdapter = new PacketAdapter(PLUGIN.getJavaPlugin(), ListenerPriority.HIGH, PacketType.Play.Server.MAP_CHUNK) {
+                packetAdapter = new PacketAdapter(PLUGIN.getJavaPlugin(), ListenerPriority.HIGH, PacketType.Play.Server.MAP_CHUNK, PacketType.Play.Server.UNLOAD_CHUNK) {
                     @Override
                     public void onPacketSending(@NotNull PacketEvent event) {
-                        //is really full chunk data
-                        //In 1.17, this value was removed, so read safely
-                        Boolean boxedIsFull = event.getPacket().getBooleans().readSafely(0);
-                        boolean isFull = boxedIsFull == null || boxedIsFull;
-                        if (!isFull) {
-                            return;
+                        boolean isLoad = event.getPacketType() == PacketType.Play.Server.MAP_CHUNK;
+                        if (isLoad) {
+                            //is really full chunk data
+                            //In 1.17, this value was removed, so read safely
+                            Boolean boxedIsFull = event.getPacket().getBooleans().readSafely(0);
+                            boolean isFull = boxedIsFull == null || boxedIsFull;
+                            if (!isFull) {
+                                return;
+                            }
                         }
                         Player player = event.getPlayer();
                         if (player == null || !player.isOnline()) {
@@ -268,30 +283,214 @@ public class VirtualDisplayItem extends AbstractDisplayItem implements Reloadabl
                         if (player.getClass().getName().contains("TemporaryPlayer")) {
                             return;
                         }
-                        StructureModifier<Integer> integerStructureModifier = event.getPacket().getIntegers();
-                        //chunk x
-                        int x = integerStructureModifier.read(0);
-                        //chunk z
-                        int z = integerStructureModifier.read(1);
-
-                        CHUNKS_MAPPING.computeIfPresent(new SimpleShopChunk(player.getWorld().getName(), x, z), (chunkLoc, targetList) -> {
-                            for (VirtualDisplayItem target : targetList) {
-                                if (!target.shop.isLoaded() || !target.isDisplay || target.shop.isLeftShop()) {
-                                    continue;
-                                }
-                                target.packetSenders.add(player.getUniqueId());
-                                target.sendFakeItem(player);
-                            }
-                            return targetList;
-                        });
+                        ChunkCoordIntPair chunkPos = readChunkPos(event.getPacket());
+                        if (chunkPos == null) {
+                            return;
+                        }
+                        if (isLoad) {
+                            onChunkSent(player, chunkPos.getChunkX(), chunkPos.getChunkZ());
+                        } else {
+                            onChunkUnloaded(player, chunkPos.getChunkX(), chunkPos.getChunkZ());
+                        }
                     }
                 };
                 Log.debug("Registering the packet listener...");
                 PROTOCOL_MANAGER.addPacketListener(packetAdapter);
+                playerListener = new PlayerViewListener();
+                playerListener.reloadModule();
+                Bukkit.getPluginManager().registerEvents(playerListener, PLUGIN.getJavaPlugin());
+                PLUGIN.getReloadManager().register(playerListener);
+                for (Player player : Bukkit.getOnlinePlayers()) {
+                    enterWorld(player, player.getLocation());
+                }
                 LOADED.set(true);
             }
         }
 
+        @Nullable
+        private static ChunkCoordIntPair readChunkPos(@NotNull PacketContainer packet) {
+            StructureModifier<Integer> integerStructureModifier = packet.getIntegers();
+            //chunk x and z
+            Integer x = integerStructureModifier.readSafely(0);
+            Integer z = integerStructureModifier.readSafely(1);
+            if (x != null && z != null) {
+                return new ChunkCoordIntPair(x, z);
+            }
+            //1.20.2+ use the ChunkPos
+            return packet.getChunkCoordIntPairs().readSafely(0);
+        }
+
+        private static long chunkKey(int x, int z) {
+            return ((long) x << 32) | (z & 0xFFFFFFFFL);
+        }
+
+        private static void onChunkSent(@NotNull Player player, int x, int z) {
+            //The view is maintained by the player events on the main thread, only read the player world if the join event missed
+            PlayerView playerView = PLAYER_VIEWS.computeIfAbsent(player.getUniqueId(), uuid -> new PlayerView(player.getWorld().getName(), x, z));
+            playerView.chunks.add(chunkKey(x, z));
+            if (playerView.isInRenderDistance(x, z)) {
+                showDisplays(player, new SimpleShopChunk(playerView.world, x, z));
+            }
+        }
+
+        /**
+         * Start a new view when the player entered a world, called on the main thread before the chunks of that world are sent
+         *
+         * @param player   The player
+         * @param location The location that player entering
+         */
+        private static void enterWorld(@NotNull Player player, @NotNull Location location) {
+            String world = Objects.requireNonNull(location.getWorld()).getName();
+            PlayerView[] previousView = new PlayerView[1];
+            PLAYER_VIEWS.compute(player.getUniqueId(), (uuid, view) -> {
+                if (view != null && view.world.equals(world)) {
+                    return view;
+                }
+                previousView[0] = view;
+                return new PlayerView(world, location.getBlockX() >> 4, location.getBlockZ() >> 4);
+            });
+            if (previousView[0] != null) {
+                forgetView(player.getUniqueId(), previousView[0]);
+            }
+        }
+
+        private static void showDisplays(@NotNull Player player, @NotNull SimpleShopChunk chunk) {
+            List<PacketContainer> packets = new ArrayList<>();
+            CHUNKS_MAPPING.computeIfPresent(chunk, (chunkLoc, targetList) -> {
+                for (VirtualDisplayItem target : targetList) {
+                    if (!target.shop.isLoaded() || !target.isDisplay || target.shop.isLeftShop()) {
+                        continue;
+                    }
+                    target.packetSenders.add(player.getUniqueId());
+                    packets.add(target.fakeItemSpawnPacket);
+                    packets.add(target.fakeItemMetaPacket);
+                    packets.add(target.fakeItemVelocityPacket);
+                }
+                return targetList;
+            });
+            //Send the whole chunk at once
+            PacketFactory.sendBundle(player, packets);
+        }
+
+        private static void hideDisplays(@NotNull Player player, @NotNull SimpleShopChunk chunk) {
+            CHUNKS_MAPPING.computeIfPresent(chunk, (chunkLoc, targetList) -> {
+                for (VirtualDisplayItem target : targetList) {
+                    if (target.packetSenders.remove(player.getUniqueId()) && target.initialized) {
+                        target.sendPacket(player, target.fakeItemDestroyPacket);
+                    }
+                }
+                return targetList;
+            });
+        }
+
+        /**
+         * Update the render center of the player, spawn the displays that entered the render distance
+         * and destroy the displays that left it.
+         *
+         * @param player The player
+         * @param world  The world that player moved to
+         * @param x      The chunk x that player moved to
+         * @param z      The chunk z that player moved to
+         */
+        private static void onCenterChanged(@NotNull Player player, @NotNull String world, int x, int z) {
+            int distance = renderDistance;
+            PlayerView view = PLAYER_VIEWS.get(player.getUniqueId());
+            if (view == null || !view.world.equals(world)) {
+                return;
+            }
+            int oldX = view.centerX;
+            int oldZ = view.centerZ;
+            if (oldX == x && oldZ == z) {
+                return;
+            }
+            view.centerX = x;
+            view.centerZ = z;
+            if (distance <= 0) {
+                return;
+            }
+            for (int cx = oldX - distance; cx <= oldX + distance; cx++) {
+                for (int cz = oldZ - distance; cz <= oldZ + distance; cz++) {
+                    if (!view.isInRenderDistance(cx, cz) && view.chunks.contains(chunkKey(cx, cz))) {
+                        hideDisplays(player, new SimpleShopChunk(world, cx, cz));
+                    }
+                }
+            }
+            for (int cx = x - distance; cx <= x + distance; cx++) {
+                for (int cz = z - distance; cz <= z + distance; cz++) {
+                    boolean wasInRange = Math.abs(cx - oldX) <= distance && Math.abs(cz - oldZ) <= distance;
+                    if (!wasInRange && view.chunks.contains(chunkKey(cx, cz))) {
+                        showDisplays(player, new SimpleShopChunk(world, cx, cz));
+                    }
+                }
+            }
+        }
+
+        private static void onChunkUnloaded(@NotNull Player player, int x, int z) {
+            PlayerView view = PLAYER_VIEWS.get(player.getUniqueId());
+            if (view == null || !view.chunks.remove(chunkKey(x, z))) {
+                return;
+            }
+            //Client will drop the entities in unloaded chunk by itself, so just stop sending packets
+            forgetViewer(player.getUniqueId(), new SimpleShopChunk(view.world, x, z));
+        }
+
+        private static void forgetViewer(@NotNull UUID player, @NotNull SimpleShopChunk chunk) {
+            CHUNKS_MAPPING.computeIfPresent(chunk, (chunkLoc, targetList) -> {
+                for (VirtualDisplayItem target : targetList) {
+                    target.packetSenders.remove(player);
+                }
+                return targetList;
+            });
+        }
+
+        /**
+         * Forget all chunks that player loaded, client will discard them when world changed or respawned
+         *
+         * @param player The player
+         */
+        private static void resetView(@NotNull UUID player) {
+            PlayerView view = PLAYER_VIEWS.remove(player);
+            if (view != null) {
+                forgetView(player, view);
+            }
+        }
+
+        private static void forgetView(@NotNull UUID player, @NotNull PlayerView view) {
+            for (long key : view.chunks) {
+                forgetViewer(player, new SimpleShopChunk(view.world, (int) (key >> 32), (int) key));
+            }
+        }
+
+        /**
+         * Forget the player in all displays of the world, no matter the chunks were tracked or not
+         *
+         * @param player The player
+         * @param world  The world that player left
+         */
+        private static void forgetWorld(@NotNull UUID player, @NotNull String world) {
+            for (Map.Entry<SimpleShopChunk, List<VirtualDisplayItem>> entry : CHUNKS_MAPPING.entrySet()) {
+                if (entry.getKey().getWorld().equals(world)) {
+                    forgetViewer(player, entry.getKey());
+                }
+            }
+        }
+
+        /**
+         * Collect the players that already loaded the chunk and the chunk is in their render distance
+         *
+         * @param chunk   The chunk
+         * @param viewers The collection to add the players in
+         */
+        public static void collectViewers(@NotNull SimpleShopChunk chunk, @NotNull Collection<UUID> viewers) {
+            long key = chunkKey(chunk.getX(), chunk.getZ());
+            for (Map.Entry<UUID, PlayerView> entry : PLAYER_VIEWS.entrySet()) {
+                PlayerView view = entry.getValue();
+                if (view.world.equals(chunk.getWorld()) && view.chunks.contains(key) && view.isInRenderDistance(chunk.getX(), chunk.getZ())) {
+                    viewers.add(entry.getKey());
+                }
+            }
+        }
+
         public static void put(@NotNull SimpleShopChunk key, @NotNull VirtualDisplayItem value) {
             //Thread-safe was ensured by ONLY USE Map method to do something
             List<VirtualDisplayItem> virtualDisplayItems = new ArrayList<>(Collections.singletonList(value));
@@ -313,15 +512,163 @@ public class VirtualDisplayItem extends AbstractDisplayItem implements Reloadabl
             if (LOADED.get()) {
                 Log.debug("Unregistering the packet listener...");
                 PROTOCOL_MANAGER.removePacketListener(packetAdapter);
+                if (playerListener != null) {
+                    HandlerList.unregisterAll(playerListener);
+                    PLUGIN.getReloadManager().unregister(playerListener);
+                    playerListener = null;
+                }
+                PLAYER_VIEWS.clear();
                 LOADED.set(false);
             }
         }
+
+        private static final class PlayerView {
+            private final String world;
+            private final Set<Long> chunks = ConcurrentHashMap.newKeySet();
+            // The chunk that player standing in
+            private volatile int centerX;
+            private volatile int centerZ;
+
+            private PlayerView(@NotNull String world, int centerX, int centerZ) {
+                this.world = world;
+                this.centerX = centerX;
+                this.centerZ = centerZ;
+            }
+
+            private boolean isInRenderDistance(int x, int z) {
+                int distance = renderDistance;
+                return distance <= 0 || (Math.abs(x - centerX) <= distance && Math.abs(z - centerZ) <= distance);
+            }
+        }
+
+        public static class PlayerViewListener implements Listener, Reloadable {
+            @Override
+            public ReloadResult reloadModule() {
+                renderDistance = Math.max(0, PLUGIN.getConfig().getInt("shop.virtual-display-render-distance", 0));
+                //shop.display-item-use-name may be changed
+                PacketFactory.invalidateCache();
+                return new ReloadResult(ReloadStatus.SUCCESS, "OK", null);
+            }
+
+            @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+            public void onMove(PlayerMoveEvent event) {
+                Location from = event.getFrom();
+                Location to = event.getTo();
+                if (to == null || ((from.getBlockX() >> 4) == (to.getBlockX() >> 4) && (from.getBlockZ() >> 4) == (to.getBlockZ() >> 4))) {
+                    return;
+                }
+                onCenterChanged(event.getPlayer(), to.getWorld().getName(), to.getBlockX() >> 4, to.getBlockZ() >> 4);
+            }
+
+            @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+            public void onTeleport(PlayerTeleportEvent event) {
+                onWorldTeleport(event);
+            }
+
+            @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+            public void onPortal(PlayerPortalEvent event) {
+                onWorldTeleport(event);
+            }
+
+            private void onWorldTeleport(PlayerTeleportEvent event) {
+                Location to = event.getTo();
+                //The chunks of new world will be sent before PlayerChangedWorldEvent, switch the view first
+                if (to != null && to.getWorld() != null && !to.getWorld().equals(event.getFrom().getWorld())) {
+                    enterWorld(event.getPlayer(), to);
+                    return;
+                }
+                onMove(event);
+            }
+
+            @EventHandler(priority = EventPriority.LOWEST)
+            public void onJoin(PlayerJoinEvent event) {
+                enterWorld(event.getPlayer(), event.getPlayer().getLocation());
+            }
+
+            @EventHandler(priority = EventPriority.MONITOR)
+            public void onQuit(PlayerQuitEvent event) {
+                resetView(event.getPlayer().getUniqueId());
+            }
+
+            @EventHandler(priority = EventPriority.MONITOR)
+            public void onWorldChange(PlayerChangedWorldEvent event) {
+                Player player = event.getPlayer();
+                //Keep the view if it already switched by teleport event
+                enterWorld(player, player.getLocation());
+                //Always clean up the previous world, the player must not receive any packets from there
+                forgetWorld(player.getUniqueId(), event.getFrom().getName());
+            }
+
+            @EventHandler(priority = EventPriority.MONITOR)
+            public void onRespawn(PlayerRespawnEvent event) {
+                //Client discards all chunks on respawn
+                resetView(event.getPlayer().getUniqueId());
+                enterWorld(event.getPlayer(), event.getRespawnLocation());
+            }
+        }
     }
 
     public static class PacketFactory {
+        private static final int MAX_BUNDLE_SIZE = 4096;
+        // <Item, Entity metadata> The shops that selling same item share the same metadata payload
+        private static final Cache<ItemFingerprint, List<?>> ITEM_META_CACHE = CacheBuilder.newBuilder()
+                .maximumSize(1024)
+                .expireAfterAccess(30, TimeUnit.MINUTES)
+                .recordStats()
+                .build();
+        private static volatile Boolean bundleSupported = null;
+
         private PacketFactory() {
         }
 
+        public static void invalidateCache() {
+            ITEM_META_CACHE.invalidateAll();
+        }
+
+        public static @NotNull CacheStats getCacheStats() {
+            return ITEM_META_CACHE.stats();
+        }
+
+        /**
+         * Send the packets to player, in a bundle packet if client supported (1.19.4+) so they will be handled in the same tick.
+         *
+         * @param player  The player
+         * @param packets The packets
+         */
+        public static void sendBundle(@NotNull Player player, @NotNull List<PacketContainer> packets) {
+            if (packets.isEmpty()) {
+                return;
+            }
+            if (packets.size() > 1 && packets.size() <= MAX_BUNDLE_SIZE && isBundleSupported()) {
+                try {
+                    PacketContainer bundle = PROTOCOL_MANAGER.createPacket(PacketType.Play.Server.BUNDLE);
+                    bundle.getPacketBundles().write(0, packets);
+                    PROTOCOL_MANAGER.sendServerPacket(player, bundle);
+                    return;
+                } catch (RuntimeException | LinkageError e) {
+                    bundleSupported = false;
+                    Log.debug("Bundle packet is not available, falling back to send the packets one by one: " + e.getMessage());
+                }
+            }
+            for (PacketContainer packet : packets) {
+                PROTOCOL_MANAGER.sendServerPacket(player, packet);
+            }
+        }
+
+        private static boolean isBundleSupported() {
+            Boolean supported = bundleSupported;
+            if (supported == null) {
+                try {
+                    supported = PacketType.Play.Server.BUNDLE.isSupported();
+                } catch (LinkageError e) {
+                    //ProtocolLib is too old
+                    supported = false;
+                }
+                bundleSupported = supported;
+            }
+            return supported;
+        }
+
         public static Throwable testFakeItem() {
             try {
                 createFakeItemSpawnPacket(0, new Location(Bukkit.getServer().getWorlds().get(0), 0, 0, 0));
@@ -375,12 +722,31 @@ public class VirtualDisplayItem extends AbstractDisplayItem implements Reloadabl
             return fakeItemPacket;
         }
 
+        @SuppressWarnings("unchecked")
         private static PacketContainer createFakeItemMetaPacket(int entityID, ItemStack itemStack) {
             //Next, create a new packet to update item data (default is empty)
             PacketContainer fakeItemMetaPacket = PROTOCOL_MANAGER.createPacket(PacketType.Play.Server.ENTITY_METADATA);
             //Entity ID
             fakeItemMetaPacket.getIntegers().write(0, entityID);
+            List<?> metadata;
+            try {
+                metadata = ITEM_META_CACHE.get(new ItemFingerprint(itemStack.clone()), () -> createFakeItemMetadata(itemStack.clone()));
+            } catch (ExecutionException | UncheckedExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IllegalStateException("Unable to initialize packet", e.getCause());
+            }
+            //For 1.19.2+, we need to use DataValue instead of WatchableObject
+            if (VERSION.ordinal() > GameVersion.v1_19_R1.ordinal()) {
+                fakeItemMetaPacket.getDataValueCollectionModifier().write(0, (List<WrappedDataValue>) metadata);
+            } else {
+                fakeItemMetaPacket.getWatchableCollectionModifier().write(0, (List<WrappedWatchableObject>) metadata);
+            }
+            return fakeItemMetaPacket;
+        }
 
+        private static List<?> createFakeItemMetadata(ItemStack itemStack) {
             //List<DataWatcher$Item> Type are more complex
             //Create a DataWatcher
             WrappedDataWatcher wpw = new WrappedDataWatcher();
@@ -416,16 +782,15 @@ public class VirtualDisplayItem extends AbstractDisplayItem implements Reloadabl
                 }
                 //Convert List<WrappedWatchableObject> to List<WrappedDataValue>
                 List<WrappedWatchableObject> wrappedWatchableObjects = wpw.getWatchableObjects();
-                List<WrappedDataValue> wrappedDataValues = new java.util.LinkedList<>();
+                List<WrappedDataValue> wrappedDataValues = new ArrayList<>(wrappedWatchableObjects.size());
                 for (WrappedWatchableObject wrappedWatchableObject : wrappedWatchableObjects) {
                     WrappedDataWatcher.WrappedDataWatcherObject watchableObject = wrappedWatchableObject.getWatcherObject();
                     wrappedDataValues.add(new WrappedDataValue(watchableObject.getIndex(), watchableObject.getSerializer(), wrappedWatchableObject.getRawValue()));
                 }
-                fakeItemMetaPacket.getDataValueCollectionModifier().write(0, wrappedDataValues);
+                return Collections.unmodifiableList(wrappedDataValues);
             } else {
-                fakeItemMetaPacket.getWatchableCollectionModifier().write(0, wpw.getWatchableObjects());
+                return Collections.unmodifiableList(wpw.getWatchableObjects());
             }
-            return fakeItemMetaPacket;
         }
 
         private static PacketContainer createFakeItemVelocityPacket(int entityID) {
@@ -470,5 +835,34 @@ public class VirtualDisplayItem extends AbstractDisplayItem implements Reloadabl
             // }
             return fakeItemDestroyPacket;
         }
+
+        /**
+         * The cache key of the display item, hash code is calculated once since the ItemMeta hashing is expensive.
+         */
+        private static final class ItemFingerprint {
+            private final ItemStack itemStack;
+            private final int hash;
+
+            private ItemFingerprint(@NotNull ItemStack itemStack) {
+                this.itemStack = itemStack;
+                this.hash = itemStack.hashCode();
+            }
+
+            @Override
+            public boolean equals(Object o) {
+                if (this == o) {
+                    return true;
+                }
+                if (!(o instanceof ItemFingerprint that)) {
+                    return false;
+                }
+                return hash == that.hash && itemStack.equals(that.itemStack);
+            }
+
+            @Override
+            public int hashCode() {
+                return hash;
+            }
+        }
     }
 }
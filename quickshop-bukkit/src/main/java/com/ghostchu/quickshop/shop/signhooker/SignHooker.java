@@ -8,6 +8,7 @@ import com.comphenix.protocol.events.PacketAdapter;
 import com.comphenix.protocol.events.PacketEvent;
 import com.comphenix.protocol.reflect.StructureModifier;
 import com.ghostchu.quickshop.QuickShop;
+import com.ghostchu.quickshop.api.localization.text.ProxiedLocale;
 import com.ghostchu.quickshop.api.shop.Shop;
 import com.ghostchu.quickshop.util.Util;
 import com.ghostchu.quickshop.util.logger.Log;
@@ -16,17 +17,20 @@ import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.block.Sign;
-import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class SignHooker {
     private final QuickShop PLUGIN;
     private final ProtocolManager PROTOCOL_MANAGER = ProtocolLibrary.getProtocolManager();
+    // <Player, Shops> The per-player sign updates waiting for next flush
+    private final Map<Player, Set<Shop>> pendingUpdates = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
     private PacketAdapter chunkAdapter;
 
     public SignHooker(QuickShop plugin) {
@@ -62,7 +66,7 @@ public class SignHooker {
                 if (shops == null) {
                     return;
                 }
-                Bukkit.getScheduler().runTaskLater(PLUGIN.getJavaPlugin(), () -> shops.forEach((loc, shop) -> updatePerPlayerShopSign(player, loc, shop)), 2);
+                schedulePerPlayerShopSign(player, shops.values());
             }
         };
 
@@ -70,6 +74,75 @@ public class SignHooker {
         Log.debug("SignHooker chunk adapter registered.");
     }
 
+    /**
+     * Queue the per-player sign updates, all updates queued in the same tick will be sent in one batch.
+     * Can be called from any thread.
+     *
+     * @param player The player
+     * @param shops  The shops
+     */
+    public void schedulePerPlayerShopSign(@NotNull Player player, @NotNull Collection<Shop> shops) {
+        if (shops.isEmpty()) {
+            return;
+        }
+        // Add inside compute, so it can't race with the draining in flush()
+        pendingUpdates.compute(player, (k, pending) -> {
+            if (pending == null) {
+                pending = ConcurrentHashMap.newKeySet();
+            }
+            pending.addAll(shops);
+            return pending;
+        });
+        if (flushScheduled.compareAndSet(false, true)) {
+            // Wait the chunk arrived the client
+            Bukkit.getScheduler().runTaskLater(PLUGIN.getJavaPlugin(), this::flush, 2);
+        }
+    }
+
+    private void flush() {
+        Util.ensureThread(false);
+        flushScheduled.set(false);
+        if (pendingUpdates.isEmpty()) {
+            return;
+        }
+        boolean glowing = PLUGIN.getConfig().getBoolean("shop.sign-glowing");
+        // <Locale, <Shop, Lines>> The players using same language share the rendered lines
+        Map<String, Map<Shop, List<Component>>> renderedLines = new HashMap<>();
+        for (Player player : pendingUpdates.keySet()) {
+            Set<Shop> shops = drain(player);
+            if (shops == null || !player.isOnline()) {
+                continue;
+            }
+            ProxiedLocale locale = PLUGIN.getTextManager().findRelativeLanguages(player);
+            Map<Shop, List<Component>> linesCache = renderedLines.computeIfAbsent(locale.getLocale(), k -> new HashMap<>());
+            int updated = 0;
+            for (Shop shop : shops) {
+                if (!shop.isLoaded() || shop.isDeleted() || !Util.isLoaded(shop.getLocation())) {
+                    continue;
+                }
+                List<Component> lines = linesCache.computeIfAbsent(shop, s -> s.getSignText(locale));
+                for (Sign sign : shop.getSigns()) {
+                    PLUGIN.getPlatform().sendSignTextChange(player, sign, glowing, lines);
+                }
+                updated++;
+            }
+            Log.debug("Updated per-player packet signs: Player=" + player.getName() + ", Shops=" + updated);
+        }
+    }
+
+    @Nullable
+    private Set<Shop> drain(@NotNull Player player) {
+        // The set is removed atomically, the shops added later go to a new set and the next flush
+        List<Set<Shop>> drained = new ArrayList<>(1);
+        pendingUpdates.compute(player, (k, pending) -> {
+            if (pending != null) {
+                drained.add(pending);
+            }
+            return null;
+        });
+        return drained.isEmpty() ? null : drained.get(0);
+    }
+
     public void updatePerPlayerShopSign(Player player, Location location, Shop shop) {
         Util.ensureThread(false);
         if (!shop.isLoaded()) {
@@ -94,15 +167,27 @@ public class SignHooker {
         }
     }
 
+    /**
+     * Queue the per-player sign updates of the shop for all players who may see it
+     *
+     * @param location The shop location
+     * @param shop     The shop
+     */
     public void updatePerPlayerShopSignBroadcast(Location location, Shop shop) {
-        World world = shop.getLocation().getWorld();
+        World world = location.getWorld();
         if (world == null) {
             return;
         }
-        Collection<Entity> nearbyPlayers = world.getNearbyEntities(shop.getLocation(), Bukkit.getViewDistance() * 16, shop.getLocation().getWorld().getMaxHeight(), Bukkit.getViewDistance() * 16);
-        for (Entity nearbyPlayer : nearbyPlayers) {
-            if (nearbyPlayer instanceof Player player) {
-                updatePerPlayerShopSign(player, location, shop);
+        int viewDistance = Bukkit.getViewDistance();
+        int chunkX = location.getBlockX() >> 4;
+        int chunkZ = location.getBlockZ() >> 4;
+        List<Shop> shops = Collections.singletonList(shop);
+        // The players of the world is tracked by server, no need to scan the entities
+        for (Player player : world.getPlayers()) {
+            Location playerLocation = player.getLocation();
+            if (Math.abs((playerLocation.getBlockX() >> 4) - chunkX) <= viewDistance
+                    && Math.abs((playerLocation.getBlockZ() >> 4) - chunkZ) <= viewDistance) {
+                schedulePerPlayerShopSign(player, shops);
             }
         }
     }
@@ -1,5 +1,6 @@
 package com.ghostchu.quickshop.util;
 
+import cc.carm.lib.easysql.api.SQLQuery;
 import com.earth2me.essentials.Essentials;
 import com.earth2me.essentials.User;
 import com.ghostchu.quickshop.QuickShop;
@@ -8,10 +9,13 @@ import com.ghostchu.quickshop.api.shop.PlayerFinder;
 import com.ghostchu.quickshop.common.util.CommonUtil;
 import com.ghostchu.quickshop.common.util.GrabConcurrentTask;
 import com.ghostchu.quickshop.common.util.JsonUtil;
+import com.ghostchu.quickshop.common.util.QuickExecutor;
 import com.ghostchu.quickshop.util.logger.Log;
 import com.ghostchu.quickshop.util.performance.PerfMonitor;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
 import com.google.common.reflect.TypeToken;
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
@@ -21,17 +25,31 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
 import java.io.FileReader;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
 import java.util.*;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
+import java.util.concurrent.*;
 import java.util.function.Supplier;
 
 public class FastPlayerFinder implements PlayerFinder {
+    private static final long UUID_LOOKUP_TIMEOUT_SECONDS = 30;
+    // Lower case name -> unique id, entries are removed together with the name caching
+    private final Map<String, UUID> uuidIndex = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<UUID>> uuidLookups = new ConcurrentHashMap<>();
+    private final Map<UUID, CompletableFuture<String>> nameLookups = new ConcurrentHashMap<>();
+    // The names bulk loaded from database, never expires
+    private final Map<UUID, String> storedNames = new ConcurrentHashMap<>();
     private final Cache<UUID, Optional<String>> nameCache = CacheBuilder.newBuilder()
             .expireAfterAccess(3, TimeUnit.DAYS)
             .maximumSize(2500)
             .recordStats()
+            .removalListener((RemovalListener<UUID, Optional<String>>) this::onNameRemoved)
+            .build();
+    // The players that the name lookup failed recently, keep them out of the name caching so they will be looked up again soon
+    private final Cache<UUID, Boolean> failedLookups = CacheBuilder.newBuilder()
+            .expireAfterWrite(1, TimeUnit.MINUTES)
+            .maximumSize(2500)
             .build();
     private final QuickShop plugin;
 
@@ -52,7 +70,7 @@ public class FastPlayerFinder implements PlayerFinder {
             }.getType());
             userCacheBeans.forEach(bean -> {
                 if (bean.getUuid() != null && bean.getName() != null) {
-                    nameCache.put(bean.getUuid(), Optional.of(bean.getName()));
+                    cache(bean.getUuid(), bean.getName());
                 }
             });
             Log.debug("Loaded " + userCacheBeans.size() + " entries from usercache.json");
@@ -61,60 +79,190 @@ public class FastPlayerFinder implements PlayerFinder {
         }
     }
 
+    /**
+     * Load the names of all players that stored in the database with one query.
+     *
+     * @return The amount of loaded names
+     */
+    public int loadFromDatabase() {
+        DatabaseHelper databaseHelper = plugin.getDatabaseHelper();
+        if (databaseHelper == null) {
+            return 0;
+        }
+        int loaded = 0;
+        // Read row by row, don't hold the whole table twice
+        try (SQLQuery query = databaseHelper.selectAllPlayers()) {
+            ResultSet rs = query.getResultSet();
+            while (rs.next()) {
+                String uuid = rs.getString("uuid");
+                String name = rs.getString("cachedName");
+                if (name == null || name.isEmpty() || !CommonUtil.isUUID(uuid)) {
+                    continue;
+                }
+                UUID uniqueId = UUID.fromString(uuid);
+                // The names that cached while loading are newer
+                if (storedNames.putIfAbsent(uniqueId, name) == null) {
+                    uuidIndex.putIfAbsent(name.toLowerCase(Locale.ROOT), uniqueId);
+                    loaded++;
+                }
+            }
+        } catch (SQLFeatureNotSupportedException e) {
+            Log.debug("The database helper doesn't support loading all players, skipping...");
+        } catch (SQLException e) {
+            plugin.logger().warn("Failed to load the player names from database, skipping...", e);
+        }
+        return loaded;
+    }
+
     @Override
     @Nullable
     public String uuid2Name(@NotNull UUID uuid) {
-        try (PerfMonitor perf = new PerfMonitor("Username Lookup - " + uuid)) {
+        try (PerfMonitor perf = new PerfMonitor("Username Lookup")) {
             Optional<String> cachedName = nameCache.getIfPresent(uuid);
             if (cachedName != null && cachedName.isPresent()) {
                 return cachedName.get();
             }
+            String storedName = storedNames.get(uuid);
+            if (storedName != null) {
+                return storedName;
+            }
+            if (failedLookups.getIfPresent(uuid) != null) {
+                return null;
+            }
             perf.setContext("cache miss");
-            GrabConcurrentTask<String> grabConcurrentTask = new GrabConcurrentTask<>(new BukkitFindNameTask(uuid), new DatabaseFindNameTask(plugin.getDatabaseHelper(), uuid), new EssentialsXFindNameTask(uuid));
-            String name = grabConcurrentTask.invokeAll(3, TimeUnit.SECONDS, Objects::nonNull);
-            this.nameCache.put(uuid, Optional.ofNullable(name));
-            return name;
+            return lookupName(uuid);
         } catch (InterruptedException e) {
             e.printStackTrace();
             return null;
         }
     }
 
+    @Override
+    @NotNull
+    public CompletableFuture<String> uuid2NameAsync(@NotNull UUID uuid) {
+        Optional<String> cachedName = nameCache.getIfPresent(uuid);
+        if (cachedName != null && cachedName.isPresent()) {
+            return CompletableFuture.completedFuture(cachedName.get());
+        }
+        String storedName = storedNames.get(uuid);
+        if (storedName != null) {
+            return CompletableFuture.completedFuture(storedName);
+        }
+        // Don't lookup a failed one again and again for the callers that re-render on completion, retry after it expired
+        if (failedLookups.getIfPresent(uuid) != null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        // Only one lookup for a player at the same time
+        CompletableFuture<String> lookup = nameLookups.computeIfAbsent(uuid, k -> CompletableFuture.supplyAsync(() -> {
+            try (PerfMonitor ignored = new PerfMonitor("Username Async Lookup")) {
+                return lookupName(uuid);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }, QuickExecutor.getCommonExecutor()));
+        lookup.whenComplete((name, throwable) -> nameLookups.remove(uuid, lookup));
+        return lookup;
+    }
+
+    @Nullable
+    private String lookupName(@NotNull UUID uuid) throws InterruptedException {
+        GrabConcurrentTask<String> grabConcurrentTask = new GrabConcurrentTask<>(new BukkitFindNameTask(uuid), new DatabaseFindNameTask(plugin.getDatabaseHelper(), uuid), new EssentialsXFindNameTask(uuid));
+        String name = grabConcurrentTask.invokeAll(3, TimeUnit.SECONDS, Objects::nonNull);
+        if (name == null) {
+            this.failedLookups.put(uuid, Boolean.TRUE);
+        } else {
+            cache(uuid, name);
+        }
+        return name;
+    }
+
     @Override
     @NotNull
     public UUID name2Uuid(@NotNull String name) {
-        try (PerfMonitor perf = new PerfMonitor("UniqueID Lookup - " + name)) {
-            for (Map.Entry<UUID, Optional<String>> uuidStringEntry : nameCache.asMap().entrySet()) {
-                if (uuidStringEntry.getValue().isPresent()) {
-                    if (uuidStringEntry.getValue().get().equals(name)) {
-                        return uuidStringEntry.getKey();
-                    }
-                }
+        try (PerfMonitor perf = new PerfMonitor("UniqueID Lookup")) {
+            CompletableFuture<UUID> lookup = name2UuidAsync(name);
+            if (!lookup.isDone()) {
+                perf.setContext("cache miss");
             }
-            perf.setContext("cache miss");
-            GrabConcurrentTask<UUID> grabConcurrentTask = new GrabConcurrentTask<>(new BukkitFindUUIDTask(name), new EssentialsXFindUUIDTask(name), new DatabaseFindUUIDTask(plugin.getDatabaseHelper(), name));
-            // This cannot fail.
-            UUID uuid = grabConcurrentTask.invokeAll(1, TimeUnit.DAYS, Objects::nonNull);
+            // The lookup itself is bounded by the timeout, use name2UuidAsync on the main thread
+            UUID uuid = lookup.get(UUID_LOOKUP_TIMEOUT_SECONDS + 1, TimeUnit.SECONDS);
+            return uuid == null ? CommonUtil.getNilUniqueId() : uuid;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CommonUtil.getNilUniqueId();
+        } catch (ExecutionException | TimeoutException e) {
+            Log.debug("Failed to lookup the unique id of " + name + ": " + e.getMessage());
+            return CommonUtil.getNilUniqueId();
+        }
+    }
+
+    @Override
+    @NotNull
+    public CompletableFuture<UUID> name2UuidAsync(@NotNull String name) {
+        String key = name.toLowerCase(Locale.ROOT);
+        UUID cachedUuid = uuidIndex.get(key);
+        if (cachedUuid != null) {
+            return CompletableFuture.completedFuture(cachedUuid);
+        }
+        // Only one lookup for a name at the same time, the other callers just share it
+        CompletableFuture<UUID> lookup = uuidLookups.computeIfAbsent(key, k -> CompletableFuture.supplyAsync(() -> lookupUuid(name), QuickExecutor.getCommonExecutor()));
+        lookup.whenComplete((uuid, throwable) -> uuidLookups.remove(key, lookup));
+        return lookup;
+    }
+
+    @Nullable
+    private UUID lookupUuid(@NotNull String name) {
+        GrabConcurrentTask<UUID> grabConcurrentTask = new GrabConcurrentTask<>(new BukkitFindUUIDTask(name), new EssentialsXFindUUIDTask(name), new DatabaseFindUUIDTask(plugin.getDatabaseHelper(), name));
+        try {
+            UUID uuid = grabConcurrentTask.invokeAll(UUID_LOOKUP_TIMEOUT_SECONDS, TimeUnit.SECONDS, Objects::nonNull);
             if (uuid == null) {
-                return CommonUtil.getNilUniqueId();
+                return null;
+            }
+            if (isCached(uuid)) {
+                // Keep the name that we already known, the given one may in a different case
+                uuidIndex.put(name.toLowerCase(Locale.ROOT), uuid);
+            } else {
+                cache(uuid, name);
             }
-            this.nameCache.put(uuid, Optional.of(name));
             return uuid;
         } catch (InterruptedException e) {
-            e.printStackTrace();
-            return CommonUtil.getNilUniqueId();
+            Thread.currentThread().interrupt();
+            return null;
         }
     }
 
     @Override
     public void cache(@NotNull UUID uuid, @NotNull String name) {
+        // Replace the stored name first, otherwise the removal of the previous cached name still see it as known from database
+        String previousStoredName = this.storedNames.replace(uuid, name);
+        if (previousStoredName != null && !previousStoredName.equalsIgnoreCase(name)) {
+            this.uuidIndex.remove(previousStoredName.toLowerCase(Locale.ROOT), uuid);
+        }
+        // Then the name caching, the removal of the previous name may remove the same index
         this.nameCache.put(uuid, Optional.of(name));
+        this.uuidIndex.put(name.toLowerCase(Locale.ROOT), uuid);
+        this.failedLookups.invalidate(uuid);
+    }
+
+    private void onNameRemoved(@NotNull RemovalNotification<UUID, Optional<String>> notification) {
+        UUID uuid = notification.getKey();
+        Optional<String> name = notification.getValue();
+        if (uuid == null || name == null || name.isEmpty()) {
+            return;
+        }
+        // Still known from database
+        if (name.get().equals(storedNames.get(uuid))) {
+            return;
+        }
+        // The name may already taken by another player
+        uuidIndex.remove(name.get().toLowerCase(Locale.ROOT), uuid);
     }
 
     @Override
     public boolean isCached(@NotNull UUID uuid) {
         Optional<String> value = this.nameCache.getIfPresent(uuid);
-        return value != null && value.isPresent();
+        return (value != null && value.isPresent()) || storedNames.containsKey(uuid);
     }
 
     @NotNull
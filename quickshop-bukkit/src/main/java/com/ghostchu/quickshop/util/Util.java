@@ -11,6 +11,7 @@ import com.ghostchu.quickshop.common.util.CommonUtil;
 import com.ghostchu.quickshop.common.util.RomanNumber;
 import com.ghostchu.quickshop.shop.display.AbstractDisplayItem;
 import com.ghostchu.quickshop.util.logger.Log;
+import com.ghostchu.quickshop.util.performance.PerfMonitor;
 import io.papermc.lib.PaperLib;
 import lombok.Getter;
 import lombok.Setter;
@@ -684,6 +685,9 @@ public class Util {
         SHOPABLES.clear();
         CUSTOM_STACKSIZE.clear();
         devMode = plugin.getConfig().getBoolean("dev-mode");
+        PerfMonitor.setProfiling(plugin.getConfig().getBoolean("debug.profiling", false));
+        Log.applyConfig(plugin.getConfig().getBoolean("debug.disable-debuglogger", false),
+                plugin.getConfig().getBoolean("debug.record-log-location", false));
 
         for (String s : plugin.getConfig().getStringList("shop-blocks")) {
             Material mat = Material.matchMaterial(s.toUpperCase());
@@ -15,6 +15,7 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 @SuppressWarnings("unused")
@@ -58,6 +59,54 @@ public class ConfigUpdateScript {
         getConfig().set("itemstack-parse-color", "null");
     }
 
+    @UpdateScript(version = 1022)
+    public void debugLogLocationRecording() {
+        getConfig().set("debug.record-log-location", false);
+    }
+
+    @UpdateScript(version = 1021)
+    public void asyncOwnerNameFetchOnMainThread() {
+        // The owner name is always fetched in background on the main thread now, this option only affects other threads
+        getConfig().setComments("shop.async-owner-name-fetch", List.of(
+                "Should we async fetch the owner name everywhere?",
+                "The owner name is always fetched in background when rendering on the server main thread (e.g. the shop signs),",
+                "the sign will show a placeholder and be updated once the name is fetched.",
+                "If you enable this option, the calls from the other threads will do the same instead of waiting for the lookup."));
+    }
+
+    @UpdateScript(version = 1020)
+    public void placeholderLoadingText() {
+        getConfig().set("plugin.PlaceHolderAPI.loading-placeholder", "...");
+    }
+
+    @UpdateScript(version = 1019)
+    public void prometheusMetricsExporter() {
+        getConfig().set("metrics-exporter.enable", false);
+        getConfig().set("metrics-exporter.host", "127.0.0.1");
+        getConfig().set("metrics-exporter.port", 9464);
+    }
+
+    @UpdateScript(version = 1018)
+    public void performanceProfiling() {
+        getConfig().set("debug.profiling", false);
+    }
+
+    @UpdateScript(version = 1017)
+    public void eventDrivenDisplayAutoDespawn() {
+        getConfig().set("shop.display-check-time", null);
+    }
+
+    @UpdateScript(version = 1016)
+    public void virtualDisplayRenderDistance() {
+        getConfig().set("shop.virtual-display-render-distance", 0);
+    }
+
+    @UpdateScript(version = 1015)
+    public void timeSlicedDisplayCheck() {
+        getConfig().set("shop.display-items-check-budget", 2.0D);
+        getConfig().set("shop.display-items-check-nearby-range", 2);
+    }
+
     @UpdateScript(version = 1004)
     public void configurableDatabaseProperties() {
         getConfig().set("database.queue", null);
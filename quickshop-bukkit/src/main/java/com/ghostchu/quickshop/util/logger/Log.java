@@ -3,7 +3,6 @@ package com.ghostchu.quickshop.util.logger;
 import com.ghostchu.quickshop.QuickShop;
 import com.ghostchu.quickshop.common.util.Timer;
 import com.ghostchu.quickshop.util.Util;
-import com.google.common.collect.EvictingQueue;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -12,44 +11,115 @@ import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Queue;
-import java.util.Set;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 
+/**
+ * The in-memory logs for debugging and pasting.
+ * <p>
+ * Every log type has its own fixed size ring buffer, the writers never lock each other. The records below the capture level
+ * are dropped before the message and the caller being created, use the {@link Supplier} variants on the hot paths.
+ */
 public class Log {
-    private static final ReentrantReadWriteLock LOCK = new ReentrantReadWriteLock();
-    private static final int BUFFER_SIZE = 500 * Type.values().length;
-    private static final Queue<Record> LOGGER_BUFFER = EvictingQueue.create(BUFFER_SIZE);
-    private static final boolean DISABLE_LOCATION_RECORDING;
+    private static final int BUFFER_SIZE_PER_TYPE = 512;
+    private static final RecordRing[] BUFFERS = new RecordRing[Type.values().length];
+    // The defaults from the system properties, the config can only turn off the capturing or turn on the location recording
+    private static final Level DEFAULT_CAPTURE_LEVEL;
+    private static final boolean DEFAULT_LOCATION_RECORDING;
+    private static volatile int captureLevel;
+    private static volatile boolean locationRecording;
 
     static {
+        for (int i = 0; i < BUFFERS.length; i++) {
+            BUFFERS[i] = new RecordRing(BUFFER_SIZE_PER_TYPE);
+        }
         // Cannot replace with Util since it depend on this class
-        DISABLE_LOCATION_RECORDING = Boolean.parseBoolean(System.getProperty("com.ghostchu.quickshop.util.logger."));
+        String level = System.getProperty("com.ghostchu.quickshop.util.logger.captureLevel");
+        Level parsed = Level.INFO;
+        if (level != null) {
+            try {
+                parsed = Level.parse(level.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+        DEFAULT_CAPTURE_LEVEL = parsed;
+        DEFAULT_LOCATION_RECORDING = Boolean.parseBoolean(System.getProperty("com.ghostchu.quickshop.util.logger.recordLocation"));
+        captureLevel = DEFAULT_CAPTURE_LEVEL.intValue();
+        locationRecording = DEFAULT_LOCATION_RECORDING;
+    }
+
+    /**
+     * Apply the debug logger settings from config
+     *
+     * @param disabled       Disable the capturing completely
+     * @param recordLocation Record the caller of every record
+     */
+    public static void applyConfig(boolean disabled, boolean recordLocation) {
+        setCaptureLevel(disabled ? Level.OFF : DEFAULT_CAPTURE_LEVEL);
+        setLocationRecording(recordLocation || DEFAULT_LOCATION_RECORDING);
+    }
+
+    /**
+     * Set the minimum level of the records to capture, {@link Level#OFF} to disable the logging
+     *
+     * @param level The level
+     */
+    public static void setCaptureLevel(@NotNull Level level) {
+        captureLevel = level.intValue();
+    }
+
+    /**
+     * Set whether the caller (thread, class, method and line) should be recorded, it requires a stack walking for every record
+     *
+     * @param enabled Enable or not
+     */
+    public static void setLocationRecording(boolean enabled) {
+        locationRecording = enabled;
+    }
+
+    public static boolean isCapturing(@NotNull Level level) {
+        return level.intValue() >= captureLevel && captureLevel != Level.OFF.intValue();
+    }
+
+    /**
+     * Capture the caller if location recording enabled
+     *
+     * @param depth The depth of the wanted frame above the log method that calls this, 1 for the direct caller
+     * @return The caller, or null if location recording disabled
+     */
+    @Nullable
+    private static Caller captureCaller(int depth) {
+        // Skip Caller#create and this method
+        return locationRecording ? Caller.create(depth + 2) : null;
+    }
+
+    private static void record(@NotNull Level level, @NotNull Type type, @NotNull String message, @Nullable Caller caller) {
+        if (!isCapturing(level)) {
+            return;
+        }
+        Record recordEntry = new Record(level, type, message, locationRecording ? caller : null);
+        BUFFERS[type.ordinal()].offer(recordEntry);
+        debugStdOutputs(recordEntry);
     }
 
     public static void cron(@NotNull String message) {
-        cron(Level.INFO, message, Caller.create());
+        if (isCapturing(Level.INFO)) {
+            cron(Level.INFO, message, captureCaller(1));
+        }
     }
 
-    @ApiStatus.Internal
-    public static void cron(@NotNull Level level, @NotNull String message, @Nullable Caller caller) {
-        LOCK.writeLock().lock();
-        try {
-            Record recordEntry;
-            if (DISABLE_LOCATION_RECORDING) {
-                recordEntry = new Record(level, Type.CRON, message, null);
-            } else {
-                recordEntry = new Record(level, Type.CRON, message, caller);
-            }
-            LOGGER_BUFFER.offer(recordEntry);
-            debugStdOutputs(recordEntry);
-        } finally {
-            LOCK.writeLock().unlock();
+    public static void cron(@NotNull Supplier<String> message) {
+        if (isCapturing(Level.INFO)) {
+            cron(Level.INFO, message.get(), captureCaller(1));
         }
+    }
 
+    @ApiStatus.Internal
+    public static void cron(@NotNull Level level, @NotNull String message, @Nullable Caller caller) {
+        record(level, Type.CRON, message, caller);
     }
 
     private static void debugStdOutputs(Record recordEntry) {
@@ -59,163 +129,130 @@ public class Log {
     }
 
     public static void cron(@NotNull Level level, @NotNull String message) {
-        cron(level, message, Caller.create());
+        if (isCapturing(level)) {
+            cron(level, message, captureCaller(1));
+        }
     }
 
     public static void debug(@NotNull String message) {
-        debug(Level.INFO, message, Caller.create());
+        if (isCapturing(Level.INFO)) {
+            debug(Level.INFO, message, captureCaller(1));
+        }
+    }
+
+    public static void debug(@NotNull Supplier<String> message) {
+        if (isCapturing(Level.INFO)) {
+            debug(Level.INFO, message.get(), captureCaller(1));
+        }
     }
 
     @ApiStatus.Internal
     public static void debug(@NotNull Level level, @NotNull String message, @Nullable Caller caller) {
-        LOCK.writeLock().lock();
-        try {
-            Record recordEntry;
-            if (DISABLE_LOCATION_RECORDING) {
-                recordEntry = new Record(level, Type.DEBUG, message, null);
-            } else {
-                recordEntry = new Record(level, Type.DEBUG, message, caller);
-            }
-            LOGGER_BUFFER.offer(recordEntry);
-            debugStdOutputs(recordEntry);
-        } finally {
-            LOCK.writeLock().unlock();
-        }
+        record(level, Type.DEBUG, message, caller);
     }
 
     public static void debug(@NotNull Level level, @NotNull String message) {
-        debug(level, message, Caller.create());
+        if (isCapturing(level)) {
+            debug(level, message, captureCaller(1));
+        }
     }
 
-    public static void performance(@NotNull Level level, @NotNull String message, @NotNull Caller caller) {
-        LOCK.writeLock().lock();
-        try {
-            Record recordEntry = new Record(level, Type.PERFORMANCE, message, caller);
-            LOGGER_BUFFER.offer(recordEntry);
-            debugStdOutputs(recordEntry);
-        } finally {
-            LOCK.writeLock().unlock();
-        }
+    public static void performance(@NotNull Level level, @NotNull String message, @Nullable Caller caller) {
+        record(level, Type.PERFORMANCE, message, caller);
     }
 
     @NotNull
     public static List<Record> fetchLogs() {
-        LOCK.readLock().lock();
-        try {
-            return new ArrayList<>(LOGGER_BUFFER);
-        } finally {
-            LOCK.readLock().unlock();
+        List<Record> records = new ArrayList<>();
+        for (RecordRing buffer : BUFFERS) {
+            buffer.copyTo(records);
         }
+        records.sort(Comparator.comparingLong(Record::getTimestamp));
+        return records;
     }
 
     @NotNull
     public static List<Record> fetchLogs(@NotNull Type type) {
-        LOCK.readLock().lock();
-        try {
-            return LOGGER_BUFFER.stream().filter(recordEntry -> recordEntry.getType() == type).toList();
-        } finally {
-            LOCK.readLock().unlock();
-        }
+        List<Record> records = new ArrayList<>();
+        BUFFERS[type.ordinal()].copyTo(records);
+        return records;
     }
 
     @NotNull
     public static List<Record> fetchLogsExclude(@NotNull Type... excludes) {
-        LOCK.readLock().lock();
-        try {
-            List<Record> records = new ArrayList<>();
-            for (Record recordEntry : LOGGER_BUFFER) {
-                if (ArrayUtils.contains(excludes, recordEntry.getType())) {
-                    continue;
-                }
-                records.add(recordEntry);
+        List<Record> records = new ArrayList<>();
+        for (Type type : Type.values()) {
+            if (ArrayUtils.contains(excludes, type)) {
+                continue;
             }
-            return records;
-        } finally {
-            LOCK.readLock().unlock();
+            BUFFERS[type.ordinal()].copyTo(records);
         }
+        records.sort(Comparator.comparingLong(Record::getTimestamp));
+        return records;
     }
 
     @NotNull
     public static List<Record> fetchLogsLevel(@NotNull Type type, @NotNull Level level) {
-        LOCK.readLock().lock();
-        try {
-            return LOGGER_BUFFER.stream().filter(recordEntry -> recordEntry.getType() == type && recordEntry.getLevel() == level).toList();
-        } finally {
-            LOCK.readLock().unlock();
-        }
+        return fetchLogs(type).stream().filter(recordEntry -> recordEntry.getLevel() == level).toList();
     }
 
     public static void permission(@NotNull String message) {
-        permission(Level.INFO, message, Caller.create(3));
+        if (isCapturing(Level.INFO)) {
+            permission(Level.INFO, message, captureCaller(2));
+        }
     }
 
-    @ApiStatus.Internal
-    public static void permission(@NotNull Level level, @NotNull String message, @Nullable Caller caller) {
-        LOCK.writeLock().lock();
-        try {
-            Record recordEntry;
-            if (DISABLE_LOCATION_RECORDING) {
-                recordEntry = new Record(level, Type.PERMISSION, message, null);
-            } else {
-                recordEntry = new Record(level, Type.PERMISSION, message, caller);
-            }
-            LOGGER_BUFFER.offer(recordEntry);
-            debugStdOutputs(recordEntry);
-        } finally {
-            LOCK.writeLock().unlock();
+    public static void permission(@NotNull Supplier<String> message) {
+        if (isCapturing(Level.INFO)) {
+            permission(Level.INFO, message.get(), captureCaller(2));
         }
+    }
 
+    @ApiStatus.Internal
+    public static void permission(@NotNull Level level, @NotNull String message, @Nullable Caller caller) {
+        record(level, Type.PERMISSION, message, caller);
     }
 
     public static void permission(@NotNull Level level, @NotNull String message) {
-        permission(level, message, Caller.create(3));
+        if (isCapturing(level)) {
+            permission(level, message, captureCaller(2));
+        }
     }
 
     public static void timing(@NotNull String operation, @NotNull Timer timer) {
-        timing(Level.INFO, operation, timer, Caller.create());
+        if (isCapturing(Level.INFO)) {
+            timing(Level.INFO, operation, timer, captureCaller(1));
+        }
     }
 
     @ApiStatus.Internal
     public static void timing(@NotNull Level level, @NotNull String operation, @NotNull Timer timer, @Nullable Caller caller) {
-        LOCK.writeLock().lock();
-        try {
-            Record recordEntry;
-            if (DISABLE_LOCATION_RECORDING) {
-                recordEntry = new Record(level, Type.TIMING, operation + " (cost " + timer.getPassedTime() + " ms)", null);
-            } else {
-                recordEntry = new Record(level, Type.TIMING, operation + " (cost " + timer.getPassedTime() + " ms)", caller);
-            }
-            LOGGER_BUFFER.offer(recordEntry);
-            debugStdOutputs(recordEntry);
-        } finally {
-            LOCK.writeLock().unlock();
+        if (isCapturing(level)) {
+            record(level, Type.TIMING, operation + " (cost " + timer.getPassedTime() + " ms)", caller);
         }
-
     }
 
     public static void transaction(@NotNull String message) {
-        transaction(Level.INFO, message, Caller.create());
+        if (isCapturing(Level.INFO)) {
+            transaction(Level.INFO, message, captureCaller(1));
+        }
+    }
+
+    public static void transaction(@NotNull Supplier<String> message) {
+        if (isCapturing(Level.INFO)) {
+            transaction(Level.INFO, message.get(), captureCaller(1));
+        }
     }
 
     @ApiStatus.Internal
     public static void transaction(@NotNull Level level, @NotNull String message, @Nullable Caller caller) {
-        LOCK.writeLock().lock();
-        try {
-            Record recordEntry;
-            if (DISABLE_LOCATION_RECORDING) {
-                recordEntry = new Record(level, Type.TRANSACTION, message, null);
-            } else {
-                recordEntry = new Record(level, Type.TRANSACTION, message, caller);
-            }
-            LOGGER_BUFFER.offer(recordEntry);
-            debugStdOutputs(recordEntry);
-        } finally {
-            LOCK.writeLock().unlock();
-        }
+        record(level, Type.TRANSACTION, message, caller);
     }
 
     public static void transaction(@NotNull Level level, @NotNull String message) {
-        transaction(level, message, Caller.create());
+        if (isCapturing(level)) {
+            transaction(level, message, captureCaller(1));
+        }
     }
 
     public enum Type {
@@ -282,6 +319,37 @@ public class Log {
 
     }
 
+    /**
+     * A fixed size ring buffer that keeps the latest records, the oldest record will be overwritten when full.
+     */
+    private static class RecordRing {
+        private final AtomicReferenceArray<Record> slots;
+        private final AtomicLong cursor = new AtomicLong();
+        private final int mask;
+
+        private RecordRing(int capacity) {
+            // Capacity must be power of two
+            this.slots = new AtomicReferenceArray<>(capacity);
+            this.mask = capacity - 1;
+        }
+
+        private void offer(@NotNull Record recordEntry) {
+            slots.set((int) (cursor.getAndIncrement() & mask), recordEntry);
+        }
+
+        private void copyTo(@NotNull List<Record> records) {
+            // Not a consistent snapshot, a writing record may be missed or read out of order, that's fine for the logs
+            long end = cursor.get();
+            long start = Math.max(0, end - slots.length());
+            for (long i = start; i < end; i++) {
+                Record recordEntry = slots.get((int) (i & mask));
+                if (recordEntry != null) {
+                    records.add(recordEntry);
+                }
+            }
+        }
+    }
+
     @Data
     public final static class Caller {
         @NotNull
@@ -118,20 +118,22 @@ public class QuickShopItemMatcherImpl implements ItemMatcher, Reloadable {
         }
 
         if (requireStack == null || givenStack == null) {
-            Log.debug(
+            ItemStack finalRequireStack = requireStack;
+            ItemStack finalGivenStack = givenStack;
+            Log.debug(() ->
                     "Match failed: A stack is null: "
                             + "requireStack["
-                            + requireStack
+                            + finalRequireStack
                             + "] givenStack["
-                            + givenStack
+                            + finalGivenStack
                             + "]");
             return false; // One of them is null (Can't be both, see above)
         }
 
         String shopIdOrigin = plugin.getPlatform().getItemShopId(requireStack);
         if (shopIdOrigin != null) {
-            Log.debug("ShopId compare -> Origin: " + shopIdOrigin + "  Given: " + plugin.getPlatform().getItemShopId(givenStack));
             String shopIdTester = plugin.getPlatform().getItemShopId(givenStack);
+            Log.debug(() -> "ShopId compare -> Origin: " + shopIdOrigin + "  Given: " + shopIdTester);
             if (shopIdOrigin.equals(shopIdTester)) {
                 return true;
             }
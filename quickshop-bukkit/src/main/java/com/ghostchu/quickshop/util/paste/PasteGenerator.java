@@ -259,6 +259,8 @@ public class PasteGenerator {
         add(new TimingsLogsItem());
         add(new CronLogsItem());
         add(new PerformanceLogsItem());
+        add(new PerformanceTimersItem());
+        add(new TickTimingsItem());
         add(new MiscUtilItem());
         PasteManager pasteManager = QuickShop.getInstance().getPasteManager();
         if (pasteManager != null) {
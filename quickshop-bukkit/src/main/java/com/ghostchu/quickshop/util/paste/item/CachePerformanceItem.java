@@ -1,8 +1,14 @@
 package com.ghostchu.quickshop.util.paste.item;
 
+import com.ghostchu.quickshop.Cache;
 import com.ghostchu.quickshop.QuickShop;
+import com.ghostchu.quickshop.api.shop.display.DisplayType;
+import com.ghostchu.quickshop.shop.SimpleShopManager;
+import com.ghostchu.quickshop.shop.display.AbstractDisplayItem;
+import com.ghostchu.quickshop.shop.display.VirtualDisplayItem;
 import com.ghostchu.quickshop.util.FastPlayerFinder;
 import com.ghostchu.quickshop.util.paste.GuavaCacheRender;
+import com.ghostchu.quickshop.util.paste.util.HTMLTable;
 import com.google.common.cache.CacheStats;
 import org.jetbrains.annotations.NotNull;
 
@@ -15,8 +21,28 @@ public class CachePerformanceItem implements SubPasteItem {
     public @NotNull String genBody() {
         return "<h5>Shop Cache</h5>" +
                 buildShopCacheContent() +
+                "<h5>Shop Block Index</h5>" +
+                buildShopBlockIndexContent() +
                 "<h5>Player Lookup Cache</h5>" +
-                buildPlayerLookupCache();
+                buildPlayerLookupCache() +
+                "<h5>Virtual Display Metadata Cache</h5>" +
+                buildVirtualDisplayMetadataCache();
+    }
+
+    @NotNull
+    private String buildVirtualDisplayMetadataCache() {
+        // Don't touch the VirtualDisplayItem class if ProtocolLib not available
+        if (AbstractDisplayItem.getNowUsing() != DisplayType.VIRTUALITEM) {
+            return "<p>Virtual DisplayItem not in use.</p>";
+        }
+        return renderTable(VirtualDisplayItem.PacketFactory.getCacheStats());
+    }
+
+    @NotNull
+    private String buildShopBlockIndexContent() {
+        HTMLTable table = new HTMLTable(2, true);
+        table.insert("Indexed Positions", String.valueOf(((SimpleShopManager) plugin.getShopManager()).getShopBlockIndex().size()));
+        return table.render();
     }
 
     @NotNull
@@ -24,8 +50,12 @@ public class CachePerformanceItem implements SubPasteItem {
         if (plugin.getShopCache() == null) {
             return "<p>Shop Cache disabled.</p>";
         }
-        CacheStats stats = plugin.getShopCache().getStats();
-        return renderTable(stats);
+        Cache cache = plugin.getShopCache();
+        HTMLTable table = new HTMLTable(2, true);
+        table.insert("Capacity", String.valueOf(cache.getCapacity()));
+        table.insert("Used Slots", String.valueOf(cache.size()));
+        table.insert("Hit Ratio", round(cache.getStats().hitRate() * 100) + "%");
+        return table.render() + renderTable(cache.getStats());
     }
 
     private String buildPlayerLookupCache() {
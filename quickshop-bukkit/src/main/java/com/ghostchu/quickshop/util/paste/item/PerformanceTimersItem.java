@@ -0,0 +1,35 @@
+package com.ghostchu.quickshop.util.paste.item;
+
+import com.ghostchu.quickshop.util.paste.util.HTMLTable;
+import com.ghostchu.quickshop.util.performance.PerfMonitor;
+import com.ghostchu.quickshop.util.performance.PerfTimer;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+public class PerformanceTimersItem implements SubPasteItem {
+
+    @Override
+    public @NotNull String genBody() {
+        List<PerfTimer> timers = PerfMonitor.getTimers();
+        if (timers.isEmpty()) {
+            return "<p>No timers recorded. Profiling: " + PerfMonitor.isProfiling() + "</p>";
+        }
+        HTMLTable table = new HTMLTable(6);
+        table.setTableTitle("Name", "Count", "Mean", "P50", "P99", "Max");
+        for (PerfTimer timer : timers) {
+            table.insert(timer.getName(),
+                    timer.getCount(),
+                    PerfTimer.format(timer.getMeanNanos()),
+                    PerfTimer.format(timer.getPercentileNanos(0.5D)),
+                    PerfTimer.format(timer.getPercentileNanos(0.99D)),
+                    PerfTimer.format(timer.getMaxNanos()));
+        }
+        return "<p>Profiling: " + PerfMonitor.isProfiling() + "</p>" + table.render();
+    }
+
+    @Override
+    public @NotNull String getTitle() {
+        return "Performance Timers";
+    }
+}
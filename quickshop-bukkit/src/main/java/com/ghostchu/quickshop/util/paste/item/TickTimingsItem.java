@@ -0,0 +1,37 @@
+package com.ghostchu.quickshop.util.paste.item;
+
+import com.ghostchu.quickshop.util.paste.util.HTMLTable;
+import com.ghostchu.quickshop.util.performance.PerfTimer;
+import com.ghostchu.quickshop.util.performance.TickTimings;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+public class TickTimingsItem implements SubPasteItem {
+
+    @Override
+    public @NotNull String genBody() {
+        List<TickTimings.Section> sections = TickTimings.getSections();
+        if (sections.isEmpty()) {
+            return "<p>No main thread time recorded.</p>";
+        }
+        HTMLTable table = new HTMLTable(7);
+        table.setTableTitle("Subsystem", "Avg/Tick (5s)", "Avg/Tick (60s)", "Peak/Tick (60s)", "Tick Share (60s)", "Calls", "Total");
+        for (TickTimings.Section section : sections) {
+            long average = section.getAverageNanosPerTick(TickTimings.WINDOW_TICKS);
+            table.insert(section.getName(),
+                    PerfTimer.format(section.getAverageNanosPerTick(TickTimings.SHORT_WINDOW_TICKS)),
+                    PerfTimer.format(average),
+                    PerfTimer.format(section.getPeakNanosPerTick(TickTimings.WINDOW_TICKS)),
+                    String.format("%.2f%%", average * 100.0D / TickTimings.TICK_NANOS),
+                    section.getCalls(),
+                    PerfTimer.format(section.getTotalNanos()));
+        }
+        return "<p>Tick: " + TickTimings.getCurrentTick() + "</p>" + table.render();
+    }
+
+    @Override
+    public @NotNull String getTitle() {
+        return "Main Thread Tick Timings";
+    }
+}
@@ -1,21 +1,42 @@
 package com.ghostchu.quickshop.util.performance;
 
+import com.ghostchu.quickshop.QuickShop;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.time.Instant;
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
+/**
+ * Execute a large batch of tasks on the server main thread without freezing the server.
+ * <p>
+ * All executors of a plugin are handled by one shared runner, higher priority jobs take the tick time first.
+ * Every tick the runner only spend the budget (maxTickMsUsage, shrinks when the server lagging) and continue
+ * at the next tick.
+ *
+ * @param <T> The task type
+ */
 public class BatchBukkitExecutor<T> {
-    private final Queue<T> tasks = new LinkedList<>();
+    private static final Map<Plugin, BatchBukkitTask> RUNNERS = new HashMap<>();
+    private final Queue<T> tasks = new ArrayDeque<>();
     private int maxTickMsUsage = 15;
-    private boolean started = false;
+    private Priority priority = Priority.NORMAL;
+    private volatile boolean started = false;
+    private volatile boolean cancelled = false;
+    private volatile boolean finished = false;
     private Instant startTime = Instant.MIN;
+    private Consumer<T> consumer;
+    private Runnable callback;
+    @Nullable
+    private ProgressListener progressListener;
+    private int progressIntervalTicks = 20;
+    private int total;
+    private volatile int processed;
+    private long submitOrder;
 
     public BatchBukkitExecutor() {
     }
@@ -24,10 +45,36 @@ public class BatchBukkitExecutor<T> {
         this.maxTickMsUsage = maxTickMsUsage;
     }
 
+    public BatchBukkitExecutor(int maxTickMsUsage, @NotNull Priority priority) {
+        this.maxTickMsUsage = maxTickMsUsage;
+        this.priority = priority;
+    }
+
     public Instant getStartTime() {
         return startTime;
     }
 
+    public @NotNull Priority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(@NotNull Priority priority) {
+        if (started) throw new IllegalStateException("This batch task has been started");
+        this.priority = priority;
+    }
+
+    /**
+     * Set the listener that will be notified on main thread while the tasks being handled
+     *
+     * @param intervalTicks The minimum interval between two notifies
+     * @param listener      The listener
+     */
+    public void setProgressListener(int intervalTicks, @Nullable ProgressListener listener) {
+        if (started) throw new IllegalStateException("This batch task has been started");
+        this.progressIntervalTicks = Math.max(1, intervalTicks);
+        this.progressListener = listener;
+    }
+
     public void addTask(@NotNull T task) {
         if (started) throw new IllegalStateException("This batch task has been started");
         this.tasks.add(task);
@@ -50,36 +97,162 @@ public class BatchBukkitExecutor<T> {
     }
 
 
+    /**
+     * Start handle the tasks, can be called from any thread.
+     *
+     * @param plugin   The plugin that owns the runner
+     * @param consumer The task handler, invoked on main thread
+     * @param callback Invoked on main thread once all tasks handled, won't be invoked if the executor has been cancelled
+     */
     public void startHandle(Plugin plugin, Consumer<T> consumer, Runnable callback) {
         if (started) throw new IllegalStateException("This batch task has been handled");
         started = true;
         startTime = Instant.now();
-        new BatchBukkitTask<>(tasks, consumer, maxTickMsUsage, callback).runTaskTimer(plugin, 1L, 1L);
+        this.consumer = consumer;
+        this.callback = callback;
+        this.total = tasks.size();
+        synchronized (RUNNERS) {
+            BatchBukkitTask runner = RUNNERS.get(plugin);
+            if (runner == null || runner.stopped) {
+                runner = new BatchBukkitTask(plugin);
+                RUNNERS.put(plugin, runner);
+                runner.runTaskTimer(plugin, 1L, 1L);
+            }
+            runner.submit(this);
+        }
+    }
+
+    /**
+     * Cancel this executor, the remaining tasks will be dropped at the next tick.
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
     }
 
-    static class BatchBukkitTask<T> extends BukkitRunnable {
-        public final Queue<T> tasks;
-        public final Consumer<T> consumer;
-        public final int maxTickMsUsage;
-        private final Runnable callback;
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getProcessed() {
+        return processed;
+    }
 
-        public BatchBukkitTask(Queue<T> tasks, Consumer<T> consumer, int maxTickMsUsage, Runnable callback) {
-            this.tasks = tasks;
-            this.consumer = consumer;
-            this.maxTickMsUsage = maxTickMsUsage;
-            this.callback = callback;
+    /**
+     * Getting the progress of this executor
+     *
+     * @return The progress between 0.0 and 1.0
+     */
+    public double getProgress() {
+        if (total == 0) {
+            return finished ? 1.0D : 0.0D;
+        }
+        return (double) processed / total;
+    }
+
+    // Main thread only
+    private boolean handle(long deadline) {
+        while (!tasks.isEmpty()) {
+            if (cancelled) {
+                tasks.clear();
+                return true;
+            }
+            T task = tasks.poll();
+            try {
+                consumer.accept(task);
+            } catch (Exception e) {
+                QuickShop.getInstance().logger().warn("Failed to handle the batch task " + task + ", skipping...", e);
+            }
+            processed++;
+            if (System.nanoTime() >= deadline) {
+                break;
+            }
+        }
+        return tasks.isEmpty();
+    }
+
+    public enum Priority {
+        LOW,
+        NORMAL,
+        HIGH
+    }
+
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(int processed, int total);
+    }
+
+    static class BatchBukkitTask extends BukkitRunnable {
+        private static final long MIN_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+        private final Plugin plugin;
+        private final TickBudget budget = new TickBudget(1, MIN_BUDGET_NANOS);
+        // Higher priority first, then first come first serve
+        private final PriorityQueue<BatchBukkitExecutor<?>> jobs = new PriorityQueue<>(
+                Comparator.<BatchBukkitExecutor<?>, Priority>comparing(executor -> executor.priority).reversed()
+                        .thenComparingLong(executor -> executor.submitOrder));
+        private final List<BatchBukkitExecutor<?>> submitted = new ArrayList<>();
+        private long submitCounter;
+        private long ticks;
+        private volatile boolean stopped;
+
+        BatchBukkitTask(Plugin plugin) {
+            this.plugin = plugin;
+        }
+
+        // Guarded by RUNNERS
+        private void submit(@NotNull BatchBukkitExecutor<?> executor) {
+            executor.submitOrder = submitCounter++;
+            submitted.add(executor);
         }
 
         @Override
         public void run() {
-            while (!tasks.isEmpty()) {
-                long startAt = System.currentTimeMillis();
-                do {
-                    consumer.accept(tasks.poll());
-                } while (System.currentTimeMillis() - startAt < maxTickMsUsage && !tasks.isEmpty());
+            ticks++;
+            synchronized (RUNNERS) {
+                jobs.addAll(submitted);
+                submitted.clear();
+                if (jobs.isEmpty()) {
+                    // Nothing to do, the next executor will start a new runner
+                    stopped = true;
+                    RUNNERS.remove(plugin, this);
+                    this.cancel();
+                    return;
+                }
+            }
+            long maxBudget = 0;
+            for (BatchBukkitExecutor<?> job : jobs) {
+                maxBudget = Math.max(maxBudget, TimeUnit.MILLISECONDS.toNanos(job.maxTickMsUsage));
+            }
+            long deadline = System.nanoTime() + budget.nextBudgetNanos(maxBudget);
+            while (!jobs.isEmpty()) {
+                BatchBukkitExecutor<?> job = jobs.peek();
+                if (!job.handle(deadline)) {
+                    notifyProgress(job);
+                    break;
+                }
+                jobs.poll();
+                job.finished = true;
+                if (!job.cancelled) {
+                    notifyProgress(job);
+                    job.callback.run();
+                }
+                if (System.nanoTime() >= deadline) {
+                    break;
+                }
+            }
+        }
+
+        private void notifyProgress(@NotNull BatchBukkitExecutor<?> job) {
+            if (job.progressListener != null && (job.finished || ticks % job.progressIntervalTicks == 0)) {
+                job.progressListener.onProgress(job.processed, job.total);
             }
-            this.cancel();
-            callback.run();
         }
     }
 
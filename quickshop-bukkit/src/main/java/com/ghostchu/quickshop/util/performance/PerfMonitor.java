@@ -6,43 +6,100 @@ import org.jetbrains.annotations.Nullable;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
+/**
+ * Measure the time cost of a task, use it with try-with-resources.
+ * <p>
+ * The costs are recorded into the {@link PerfTimer} that named by the task name when profiling enabled, otherwise only the
+ * tasks that over the excepted duration will be logged. Use a constant name to keep the amount of timers bounded, the
+ * variable part should go to {@link #setContext(String)} which only shows in the logs.
+ */
 public class PerfMonitor implements AutoCloseable {
+    private static final Map<String, PerfTimer> TIMERS = new ConcurrentHashMap<>();
+    private static volatile boolean profiling = false;
     private final String name;
-    private final Instant startTime;
+    private final long startNanos;
     @Nullable
     private final Duration exceptedDuration;
-    private final Log.Caller caller;
     @Nullable
     private String context;
 
     public PerfMonitor() {
-        this.caller = Log.Caller.create();
-        this.name = caller.getClassName() + "#" + caller.getMethodName();
-        this.startTime = Instant.now();
-        this.exceptedDuration = null;
+        this(Log.Caller.create());
     }
 
     public PerfMonitor(@NotNull Duration exceptedDuration) {
-        this.caller = Log.Caller.create();
-        this.name = caller.getClassName() + "#" + caller.getMethodName();
-        this.startTime = Instant.now();
-        this.exceptedDuration = exceptedDuration;
+        this(Log.Caller.create(), exceptedDuration);
     }
 
     public PerfMonitor(@NotNull String name) {
-        this.caller = Log.Caller.create();
-        this.name = name;
-        this.startTime = Instant.now();
-        this.exceptedDuration = null;
+        this(name, null);
     }
 
-    public PerfMonitor(@NotNull String name, @NotNull Duration exceptedDuration) {
-        this.caller = Log.Caller.create();
+    public PerfMonitor(@NotNull String name, @Nullable Duration exceptedDuration) {
         this.name = name;
-        this.startTime = Instant.now();
         this.exceptedDuration = exceptedDuration;
+        this.startNanos = System.nanoTime();
+    }
+
+    private PerfMonitor(@NotNull Log.Caller caller) {
+        this(caller.getClassName() + "#" + caller.getMethodName(), null);
+    }
+
+    private PerfMonitor(@NotNull Log.Caller caller, @NotNull Duration exceptedDuration) {
+        this(caller.getClassName() + "#" + caller.getMethodName(), exceptedDuration);
+    }
+
+    public static boolean isProfiling() {
+        return profiling;
+    }
+
+    /**
+     * Enable or disable the profiling, the timers won't be cleared when disabling
+     *
+     * @param enabled Enable or not
+     */
+    public static void setProfiling(boolean enabled) {
+        profiling = enabled;
+    }
+
+    /**
+     * Getting the timers sorted by the total cost, the most expensive first
+     *
+     * @return The timers
+     */
+    @NotNull
+    public static List<PerfTimer> getTimers() {
+        List<PerfTimer> timers = new ArrayList<>(TIMERS.values());
+        timers.sort(Comparator.comparingLong((PerfTimer timer) -> timer.getMeanNanos() * timer.getCount()).reversed());
+        return timers;
+    }
+
+    @Nullable
+    public static PerfTimer getTimer(@NotNull String name) {
+        return TIMERS.get(name);
+    }
+
+    /**
+     * Record a cost into the named timer directly, does nothing if profiling disabled
+     *
+     * @param name  The timer name
+     * @param nanos The cost in nanoseconds
+     */
+    public static void record(@NotNull String name, long nanos) {
+        if (profiling) {
+            TIMERS.computeIfAbsent(name, PerfTimer::new).record(nanos);
+        }
+    }
+
+    public static void resetTimers() {
+        TIMERS.clear();
     }
 
     @Nullable
@@ -52,7 +109,7 @@ public class PerfMonitor implements AutoCloseable {
 
     @NotNull
     public Instant getStartTime() {
-        return startTime;
+        return Instant.now().minusNanos(System.nanoTime() - startNanos);
     }
 
     @NotNull
@@ -66,25 +123,24 @@ public class PerfMonitor implements AutoCloseable {
 
     @Override
     public void close() {
-        Duration passedDuration = getTimePassed();
-        String passed = passedDuration.toMillis() + "ms";
+        long passedNanos = System.nanoTime() - startNanos;
+        record(name, passedNanos);
+        if (exceptedDuration == null || passedNanos <= exceptedDuration.toNanos()) {
+            return;
+        }
         StringBuilder messageBuilder = new StringBuilder();
         messageBuilder.append("The task [").append(name).append("] ");
         if (context != null) {
             messageBuilder.append("(").append(context).append(") ");
         }
-        messageBuilder.append("has finished in ").append(passed).append(".");
-        Level level = Level.INFO;
-        if (isReachedLimit()) {
-            messageBuilder.append(" OVER LIMIT! The excepted time cost should less than ").append(exceptedDuration.toMillis()).append("ms.");
-            level = Level.WARNING;
-        }
-        Log.performance(level, messageBuilder.toString(), caller);
+        messageBuilder.append("has finished in ").append(Duration.ofNanos(passedNanos).toMillis()).append("ms.");
+        messageBuilder.append(" OVER LIMIT! The excepted time cost should less than ").append(exceptedDuration.toMillis()).append("ms.");
+        Log.performance(Level.WARNING, messageBuilder.toString(), null);
     }
 
     @NotNull
     public Duration getTimePassed() {
-        return Duration.between(startTime, Instant.now());
+        return Duration.ofNanos(System.nanoTime() - startNanos);
     }
 
     public boolean isReachedLimit() {
@@ -0,0 +1,88 @@
+package com.ghostchu.quickshop.util.performance;
+
+import com.ghostchu.quickshop.QuickShop;
+import io.papermc.lib.PaperLib;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-tick time budget which shrinks when the server running out of the tick time.
+ * <p>
+ * On Paper the budget follows the real MSPT reported by the server, it starts shrinking once the tick time goes above
+ * {@link #BUSY_LOAD} of a tick and drops to the minimum when the server can't keep up with 20 TPS.
+ * Spigot does not expose the MSPT, so it falls back to estimate the tick length by the interval between the calls
+ * of {@link #nextBudgetNanos(long)}, which only notices the server once it is already falling behind.
+ * The owner must call it exactly once per run of its repeating task.
+ */
+public class TickBudget {
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final double SMOOTHING = 0.1D;
+    private static final double BUSY_LOAD = 0.8D;
+    private final long periodNanos;
+    private final long minBudgetNanos;
+    private long lastRunAt = -1;
+    private double averageIntervalNanos;
+
+    /**
+     * @param periodTicks    The period of the owner task in ticks
+     * @param minBudgetNanos The budget will never shrink below this value
+     */
+    public TickBudget(long periodTicks, long minBudgetNanos) {
+        this.periodNanos = Math.max(1, periodTicks) * TICK_NANOS;
+        this.minBudgetNanos = minBudgetNanos;
+        this.averageIntervalNanos = periodNanos;
+    }
+
+    /**
+     * Calculate the budget for this run
+     *
+     * @param maxBudgetNanos The budget when the server running at full speed
+     * @return The budget can be used in this run, in nanoseconds
+     */
+    public long nextBudgetNanos(long maxBudgetNanos) {
+        long now = System.nanoTime();
+        if (lastRunAt != -1) {
+            // Cap the single interval, a long pause (world saving, etc.) shouldn't starve the tasks for seconds
+            long interval = Math.min(now - lastRunAt, periodNanos * 4);
+            averageIntervalNanos += (interval - averageIntervalNanos) * SMOOTHING;
+        }
+        lastRunAt = now;
+        long floor = Math.min(minBudgetNanos, maxBudgetNanos);
+        double mspt = getServerMspt();
+        if (mspt >= 0) {
+            double load = mspt * 1000000.0D / TICK_NANOS;
+            if (load <= BUSY_LOAD) {
+                return maxBudgetNanos;
+            }
+            // Give back the remaining tick time linearly, nothing left once the tick is full
+            double headroom = Math.max(0, (1 - load) / (1 - BUSY_LOAD));
+            return Math.max(floor, (long) (maxBudgetNanos * headroom));
+        }
+        if (averageIntervalNanos <= periodNanos * 1.05D) {
+            return maxBudgetNanos;
+        }
+        // Back off quadratically, a lagging server need the time more than us
+        double speed = periodNanos / averageIntervalNanos;
+        return Math.max(floor, (long) (maxBudgetNanos * speed * speed));
+    }
+
+    /**
+     * Getting the estimated milliseconds per tick
+     *
+     * @return The MSPT reported by the server on Paper, or estimated by the task interval on Spigot
+     */
+    public double getEstimatedMspt() {
+        double mspt = getServerMspt();
+        if (mspt >= 0) {
+            return mspt;
+        }
+        return averageIntervalNanos / (periodNanos / TICK_NANOS) / 1000000.0D;
+    }
+
+    private static double getServerMspt() {
+        if (!PaperLib.isPaper()) {
+            return -1;
+        }
+        return QuickShop.getInstance().getPlatform().getAverageTickTime();
+    }
+}
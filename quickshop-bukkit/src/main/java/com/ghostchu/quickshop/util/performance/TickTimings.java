@@ -0,0 +1,155 @@
+package com.ghostchu.quickshop.util.performance;
+
+import org.bukkit.Bukkit;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Attribute the main thread time to the QuickShop tasks and listeners per tick.
+ * <p>
+ * Every subsystem owns a {@link Section} and records its cost with {@link Section#record(long)}, the costs are summed
+ * into the slot of current tick in a rolling window of {@link #WINDOW_TICKS} ticks. The tick counter is advanced by
+ * {@link #tick()} which must be scheduled every tick. Unlike {@link PerfMonitor} it's always enabled and allocation free,
+ * so it can be used in the hot listeners.
+ */
+public final class TickTimings {
+    public static final int WINDOW_TICKS = 1200;
+    public static final int SHORT_WINDOW_TICKS = 100;
+    public static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final Map<String, Section> SECTIONS = new ConcurrentHashMap<>();
+    private static volatile long currentTick = 0;
+
+    private TickTimings() {
+    }
+
+    /**
+     * Getting or creating the section with given name, keep the returned section in a static field
+     *
+     * @param name The subsystem name
+     * @return The section
+     */
+    @NotNull
+    public static Section section(@NotNull String name) {
+        return SECTIONS.computeIfAbsent(name, Section::new);
+    }
+
+    /**
+     * Getting the sections sorted by the average cost per tick in the short window, the most expensive first
+     *
+     * @return The sections
+     */
+    @NotNull
+    public static List<Section> getSections() {
+        List<Section> sections = new ArrayList<>(SECTIONS.values());
+        sections.sort(Comparator.comparingLong((Section section) -> section.getAverageNanosPerTick(SHORT_WINDOW_TICKS)).reversed());
+        return sections;
+    }
+
+    /**
+     * Advance the tick counter, call it once per tick from the main thread
+     */
+    public static void tick() {
+        currentTick++;
+    }
+
+    public static long getCurrentTick() {
+        return currentTick;
+    }
+
+    public static final class Section {
+        private final String name;
+        // Written by the main thread only, the readers may see a slightly stale window
+        private final long[] window = new long[WINDOW_TICKS];
+        private volatile long lastTick = -1;
+        private volatile long totalNanos;
+        private volatile long calls;
+
+        private Section(@NotNull String name) {
+            this.name = name;
+        }
+
+        /**
+         * Record the time passed since the start time into current tick, the costs on other threads are ignored
+         *
+         * @param startNanos The {@link System#nanoTime()} when the work started
+         */
+        public void record(long startNanos) {
+            long nanos = System.nanoTime() - startNanos;
+            if (!Bukkit.isPrimaryThread()) {
+                return;
+            }
+            long tick = currentTick;
+            if (tick != lastTick) {
+                // Clear the slots of the ticks that nothing recorded
+                for (long t = Math.max(lastTick + 1, tick - WINDOW_TICKS + 1); t <= tick; t++) {
+                    window[slot(t)] = 0;
+                }
+                lastTick = tick;
+            }
+            window[slot(tick)] += nanos;
+            totalNanos += nanos;
+            calls++;
+        }
+
+        private static int slot(long tick) {
+            return (int) (tick % WINDOW_TICKS);
+        }
+
+        /**
+         * Getting the average cost per tick of the last completed ticks
+         *
+         * @param windowTicks The amount of ticks, up to {@link #WINDOW_TICKS}
+         * @return The average cost in nanoseconds
+         */
+        public long getAverageNanosPerTick(int windowTicks) {
+            int ticks = Math.min(windowTicks, WINDOW_TICKS - 1);
+            long sum = 0;
+            long now = currentTick;
+            long last = lastTick;
+            for (long t = Math.max(0, now - ticks); t < now; t++) {
+                if (t <= last) {
+                    sum += window[slot(t)];
+                }
+            }
+            return sum / Math.max(1, ticks);
+        }
+
+        /**
+         * Getting the highest cost of a single tick in the last completed ticks
+         *
+         * @param windowTicks The amount of ticks, up to {@link #WINDOW_TICKS}
+         * @return The peak cost in nanoseconds
+         */
+        public long getPeakNanosPerTick(int windowTicks) {
+            int ticks = Math.min(windowTicks, WINDOW_TICKS - 1);
+            long peak = 0;
+            long now = currentTick;
+            long last = lastTick;
+            for (long t = Math.max(0, now - ticks); t < now; t++) {
+                if (t <= last) {
+                    peak = Math.max(peak, window[slot(t)]);
+                }
+            }
+            return peak;
+        }
+
+        @NotNull
+        public String getName() {
+            return name;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getCalls() {
+            return calls;
+        }
+    }
+}
@@ -3,8 +3,12 @@ package com.ghostchu.quickshop.watcher;
 import com.ghostchu.quickshop.QuickShop;
 import com.ghostchu.quickshop.api.shop.Shop;
 import com.ghostchu.quickshop.shop.ContainerShop;
+import com.ghostchu.quickshop.shop.SimpleShopChunk;
 import com.ghostchu.quickshop.shop.display.AbstractDisplayItem;
+import com.ghostchu.quickshop.util.Util;
 import com.ghostchu.quickshop.util.paste.item.SubPasteItem;
+import com.ghostchu.quickshop.util.paste.util.HTMLTable;
+import com.ghostchu.quickshop.util.performance.TickTimings;
 import com.ghostchu.simplereloadlib.ReloadResult;
 import com.ghostchu.simplereloadlib.ReloadStatus;
 import com.ghostchu.simplereloadlib.Reloadable;
@@ -12,14 +16,35 @@ import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.*;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.StringJoiner;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
 
-public class DisplayAutoDespawnWatcher extends BukkitRunnable implements Reloadable, SubPasteItem {
+/**
+ * Spawn the display items only when there is any player nearby.
+ * <p>
+ * Every player watches the chunks within the despawn range around the chunk they standing in, the watchers of every chunk
+ * are reference counted. The displays are spawned when a chunk gets its first watcher and removed when it loses the last one,
+ * so only the chunks that entering or leaving the range of a moved player need to be touched.
+ */
+public class DisplayAutoDespawnWatcher implements Listener, Reloadable, SubPasteItem {
+    private static final TickTimings.Section TIMINGS = TickTimings.section("Display Auto Despawn Watcher");
     private final QuickShop plugin;
+    // Main thread only
+    private final Map<UUID, SimpleShopChunk> playerCenters = new HashMap<>();
+    private final Map<SimpleShopChunk, Integer> chunkWatchers = new HashMap<>();
     private int range;
+    private int rangeChunks;
+    private long chunkUpdates;
 
     public DisplayAutoDespawnWatcher(@NotNull QuickShop plugin) {
         this.plugin = plugin;
@@ -30,62 +55,203 @@ public class DisplayAutoDespawnWatcher extends BukkitRunnable implements Reloada
 
     private void init() {
         this.range = plugin.getConfig().getInt("shop.display-despawn-range");
+        // Round up to the chunks, the chunk that the player standing in always counts
+        this.rangeChunks = Math.max(0, (range + 15) >> 4);
     }
 
-    public DisplayAutoDespawnWatcher(QuickShop plugin, int range) {
-        this.plugin = plugin;
-        this.range = range;
+    /**
+     * Start watching the online players and sync the displays of loaded shops
+     */
+    public void start() {
+        Util.ensureThread(false);
+        Bukkit.getPluginManager().registerEvents(this, plugin.getJavaPlugin());
+        rebuild();
     }
 
     @Override
     public ReloadResult reloadModule() {
         init();
+        rebuild();
         return ReloadResult.builder().status(ReloadStatus.SUCCESS).build();
     }
 
-    @Override
-    public void run() {
-        for (Shop shop : plugin.getShopManager().getLoadedShops()) {
-            //Shop may be deleted or unloaded when iterating
-            if (shop.isDeleted() || !shop.isLoaded()) {
-                continue;
+    private void rebuild() {
+        playerCenters.clear();
+        chunkWatchers.clear();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            SimpleShopChunk center = toChunk(player.getLocation());
+            if (center != null) {
+                playerCenters.put(player.getUniqueId(), center);
+                forEachChunkInRange(center, chunk -> chunkWatchers.merge(chunk, 1, Integer::sum));
             }
-            Location location = shop.getLocation();
-            World world = shop.getLocation().getWorld(); //Cache this, because it will took some time.
-            AbstractDisplayItem displayItem = ((ContainerShop) shop).getDisplayItem();
-            if (displayItem != null) {
-                // Check the range has player?
-                boolean anyPlayerInRegion = false;
-                for (Player player : Bukkit.getOnlinePlayers()) {
-                    if ((player.getWorld() == world) && (player.getLocation().distance(location) <= range)) {
-                        anyPlayerInRegion = true;
-                        break;
-                    }
+        }
+        // Watcher is started before the shop manager, the shops will check it by themselves when loading
+        if (plugin.getShopManager() == null) {
+            return;
+        }
+        for (Shop shop : plugin.getShopManager().getLoadedShops()) {
+            updateDisplay(shop, isWatched(shop.getLocation()));
+        }
+    }
+
+    /**
+     * Check if there is any player near the location
+     *
+     * @param location The location
+     * @return true if the display at this location should be spawned
+     */
+    public boolean isWatched(@NotNull Location location) {
+        SimpleShopChunk chunk = toChunk(location);
+        return chunk != null && chunkWatchers.containsKey(chunk);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        moveTo(event.getPlayer().getUniqueId(), toChunk(event.getPlayer().getLocation()));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        moveTo(event.getPlayer().getUniqueId(), null);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onMove(PlayerMoveEvent event) {
+        Location from = event.getFrom();
+        Location to = event.getTo();
+        if (to == null) {
+            return;
+        }
+        // Only care about the chunk changes, the most of moves are inside a chunk
+        if ((from.getBlockX() >> 4) == (to.getBlockX() >> 4) && (from.getBlockZ() >> 4) == (to.getBlockZ() >> 4) && from.getWorld() == to.getWorld()) {
+            return;
+        }
+        moveTo(event.getPlayer().getUniqueId(), toChunk(to));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onTeleport(PlayerTeleportEvent event) {
+        onMove(event);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRespawn(PlayerRespawnEvent event) {
+        moveTo(event.getPlayer().getUniqueId(), toChunk(event.getRespawnLocation()));
+    }
+
+    private void moveTo(@NotNull UUID player, @Nullable SimpleShopChunk to) {
+        long startTime = System.nanoTime();
+        try {
+            moveCenter(player, to);
+        } finally {
+            TIMINGS.record(startTime);
+        }
+    }
+
+    private void moveCenter(@NotNull UUID player, @Nullable SimpleShopChunk to) {
+        SimpleShopChunk from = to == null ? playerCenters.remove(player) : playerCenters.put(player, to);
+        if (from != null && from.equals(to)) {
+            return;
+        }
+        if (from != null) {
+            forEachChunkInRange(from, chunk -> {
+                if (to == null || !isInRange(to, chunk)) {
+                    unwatch(chunk);
                 }
-                if (anyPlayerInRegion) {
-                    if (!displayItem.isSpawned()) {
-                        displayItem.spawn();
-                    }
-                } else if (displayItem.isSpawned()) {
-                    displayItem.remove();
+            });
+        }
+        if (to != null) {
+            forEachChunkInRange(to, chunk -> {
+                if (from == null || !isInRange(from, chunk)) {
+                    watch(chunk);
                 }
+            });
+        }
+    }
+
+    private void watch(@NotNull SimpleShopChunk chunk) {
+        if (chunkWatchers.merge(chunk, 1, Integer::sum) == 1) {
+            updateDisplays(chunk, true);
+        }
+    }
+
+    private void unwatch(@NotNull SimpleShopChunk chunk) {
+        Integer watchers = chunkWatchers.computeIfPresent(chunk, (k, v) -> v > 1 ? v - 1 : null);
+        if (watchers == null) {
+            updateDisplays(chunk, false);
+        }
+    }
+
+    private void updateDisplays(@NotNull SimpleShopChunk chunk, boolean spawn) {
+        Map<Location, Shop> shops = plugin.getShopManager().getShops(chunk.getWorld(), chunk.getX(), chunk.getZ());
+        if (shops == null) {
+            return;
+        }
+        chunkUpdates++;
+        for (Shop shop : shops.values()) {
+            updateDisplay(shop, spawn);
+        }
+    }
+
+    private void updateDisplay(@NotNull Shop shop, boolean spawn) {
+        //Shop may be deleted or unloaded
+        if (shop.isDeleted() || !shop.isLoaded()) {
+            return;
+        }
+        AbstractDisplayItem displayItem = ((ContainerShop) shop).getDisplayItem();
+        if (displayItem == null) {
+            return;
+        }
+        if (spawn) {
+            if (!displayItem.isSpawned()) {
+                displayItem.spawn();
             }
+        } else if (displayItem.isSpawned()) {
+            displayItem.remove();
         }
     }
 
-    @Override
-    public synchronized void cancel() throws IllegalStateException {
-        super.cancel();
+    private boolean isInRange(@NotNull SimpleShopChunk center, @NotNull SimpleShopChunk chunk) {
+        return center.getWorld().equals(chunk.getWorld())
+                && Math.abs(center.getX() - chunk.getX()) <= rangeChunks
+                && Math.abs(center.getZ() - chunk.getZ()) <= rangeChunks;
+    }
+
+    private void forEachChunkInRange(@NotNull SimpleShopChunk center, @NotNull Consumer<SimpleShopChunk> consumer) {
+        for (int x = center.getX() - rangeChunks; x <= center.getX() + rangeChunks; x++) {
+            for (int z = center.getZ() - rangeChunks; z <= center.getZ() + rangeChunks; z++) {
+                consumer.accept(new SimpleShopChunk(center.getWorld(), x, z));
+            }
+        }
+    }
+
+    @Nullable
+    private static SimpleShopChunk toChunk(@Nullable Location location) {
+        if (location == null) {
+            return null;
+        }
+        World world = location.getWorld();
+        if (world == null) {
+            return null;
+        }
+        return new SimpleShopChunk(world.getName(), location.getBlockX() >> 4, location.getBlockZ() >> 4);
+    }
+
+    public void cancel() {
+        HandlerList.unregisterAll(this);
         plugin.getReloadManager().unregister(this);
         plugin.getPasteManager().unregister(plugin.getJavaPlugin(), this);
     }
 
     @Override
     public @NotNull String genBody() {
-        StringJoiner joiner = new StringJoiner("<br/>");
-        joiner.add("<b>Warning: DisplayAutoDespawnWatcher has been enabled, this may cause lag. This feature is not recommended</b>");
-        joiner.add("<p>Range: " + range + "</p>");
-        return joiner.toString();
+        HTMLTable table = new HTMLTable(2, true);
+        table.insert("Range (blocks)", String.valueOf(range));
+        table.insert("Range (chunks)", String.valueOf(rangeChunks));
+        table.insert("Tracked Players", String.valueOf(playerCenters.size()));
+        table.insert("Watched Chunks", String.valueOf(chunkWatchers.size()));
+        table.insert("Chunk Display Updates", String.valueOf(chunkUpdates));
+        return table.render();
     }
 
     @Override
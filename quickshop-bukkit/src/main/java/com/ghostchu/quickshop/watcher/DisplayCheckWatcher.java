@@ -0,0 +1,180 @@
+package com.ghostchu.quickshop.watcher;
+
+import com.ghostchu.quickshop.QuickShop;
+import com.ghostchu.quickshop.api.shop.Shop;
+import com.ghostchu.quickshop.util.paste.item.SubPasteItem;
+import com.ghostchu.quickshop.util.paste.util.HTMLTable;
+import com.ghostchu.quickshop.util.performance.TickTimings;
+import com.ghostchu.simplereloadlib.ReloadResult;
+import com.ghostchu.simplereloadlib.ReloadStatus;
+import com.ghostchu.simplereloadlib.Reloadable;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rolling display checker, check a bounded slice of the loaded shops every tick instead of all shops in one tick.
+ * Every loaded shop will be checked once per display-items-check-ticks, the shops near the players will be checked
+ * {@link #NEARBY_SPEEDUP} times more often.
+ */
+public class DisplayCheckWatcher extends BukkitRunnable implements Reloadable, SubPasteItem {
+    private static final int NEARBY_SPEEDUP = 4;
+    private static final TickTimings.Section TIMINGS = TickTimings.section("Display Check Watcher");
+    private final QuickShop plugin;
+    private final Deque<Shop> pending = new ArrayDeque<>();
+    private final Deque<Shop> nearbyPending = new ArrayDeque<>();
+    private int period;
+    private long budgetNanos;
+    private int nearbyRange;
+    private long ticks;
+    private long roundStartTick;
+    private long nearbyRoundStartTick;
+    private int slice;
+    private int nearbySlice;
+    // Single writer, read by the metrics exporter
+    private volatile long totalChecked;
+    private volatile long totalCheckNanos;
+    private volatile long budgetExceeded;
+
+    public DisplayCheckWatcher(@NotNull QuickShop plugin) {
+        this.plugin = plugin;
+        plugin.getReloadManager().register(this);
+        plugin.getPasteManager().register(plugin.getJavaPlugin(), this);
+        init();
+        // Start the first rounds on the first run
+        this.roundStartTick = -period;
+        this.nearbyRoundStartTick = -period;
+    }
+
+    private void init() {
+        this.period = Math.max(1, plugin.getDisplayItemCheckTicks());
+        this.budgetNanos = TimeUnit.MICROSECONDS.toNanos((long) (plugin.getConfig().getDouble("shop.display-items-check-budget", 2.0D) * 1000));
+        this.nearbyRange = plugin.getConfig().getInt("shop.display-items-check-nearby-range", 2);
+    }
+
+    @Override
+    public ReloadResult reloadModule() {
+        init();
+        return ReloadResult.builder().status(ReloadStatus.SUCCESS).build();
+    }
+
+    @Override
+    public void run() {
+        long runStartTime = System.nanoTime();
+        try {
+            checkSlice();
+        } finally {
+            TIMINGS.record(runStartTime);
+        }
+    }
+
+    private void checkSlice() {
+        ticks++;
+        if (pending.isEmpty() && ticks - roundStartTick >= period) {
+            pending.addAll(plugin.getShopManager().getLoadedShops());
+            slice = Math.max(1, (pending.size() + period - 1) / period);
+            roundStartTick = ticks;
+        }
+        int nearbyPeriod = Math.max(1, period / NEARBY_SPEEDUP);
+        if (nearbyRange > 0 && nearbyPending.isEmpty() && ticks - nearbyRoundStartTick >= nearbyPeriod) {
+            collectNearbyShops();
+            nearbySlice = Math.max(1, (nearbyPending.size() + nearbyPeriod - 1) / nearbyPeriod);
+            nearbyRoundStartTick = ticks;
+        }
+        long startTime = System.nanoTime();
+        long deadline = startTime + budgetNanos;
+        int checked = check(nearbyPending, nearbySlice, deadline);
+        checked += check(pending, slice, deadline);
+        long endTime = System.nanoTime();
+        if (endTime > deadline) {
+            budgetExceeded++;
+        }
+        totalChecked += checked;
+        totalCheckNanos += endTime - startTime;
+    }
+
+    private int check(@NotNull Deque<Shop> queue, int limit, long deadline) {
+        int checked = 0;
+        while (checked < limit && System.nanoTime() < deadline) {
+            Shop shop = queue.poll();
+            if (shop == null) {
+                break;
+            }
+            //Shop may be deleted or unloaded when waiting
+            if (shop.isDeleted() || !shop.isLoaded()) {
+                continue;
+            }
+            shop.checkDisplay();
+            checked++;
+        }
+        return checked;
+    }
+
+    private void collectNearbyShops() {
+        Set<Shop> nearby = new LinkedHashSet<>();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            Location location = player.getLocation();
+            String world = player.getWorld().getName();
+            int chunkX = location.getBlockX() >> 4;
+            int chunkZ = location.getBlockZ() >> 4;
+            for (int x = chunkX - nearbyRange; x <= chunkX + nearbyRange; x++) {
+                for (int z = chunkZ - nearbyRange; z <= chunkZ + nearbyRange; z++) {
+                    Map<Location, Shop> inChunk = plugin.getShopManager().getShops(world, x, z);
+                    if (inChunk != null) {
+                        nearby.addAll(inChunk.values());
+                    }
+                }
+            }
+        }
+        nearbyPending.addAll(nearby);
+    }
+
+    public long getTotalChecked() {
+        return totalChecked;
+    }
+
+    /**
+     * Getting the time spent on checking the displays
+     *
+     * @return The time in nanoseconds
+     */
+    public long getTotalCheckNanos() {
+        return totalCheckNanos;
+    }
+
+    public long getBudgetExceeded() {
+        return budgetExceeded;
+    }
+
+    @Override
+    public synchronized void cancel() throws IllegalStateException {
+        super.cancel();
+        plugin.getReloadManager().unregister(this);
+        plugin.getPasteManager().unregister(plugin.getJavaPlugin(), this);
+    }
+
+    @Override
+    public @NotNull String genBody() {
+        HTMLTable table = new HTMLTable(2, true);
+        table.insert("Period (ticks)", String.valueOf(period));
+        table.insert("Budget (ms/tick)", String.valueOf(budgetNanos / 1000000.0D));
+        table.insert("Nearby Range (chunks)", String.valueOf(nearbyRange));
+        table.insert("Pending", String.valueOf(pending.size()));
+        table.insert("Nearby Pending", String.valueOf(nearbyPending.size()));
+        table.insert("Total Checked", String.valueOf(totalChecked));
+        table.insert("Average Check Cost (μs/shop)", String.valueOf(totalChecked == 0 ? 0 : totalCheckNanos / totalChecked / 1000));
+        table.insert("Budget Exceeded Ticks", String.valueOf(budgetExceeded));
+        return table.render();
+    }
+
+    @Override
+    public @NotNull String getTitle() {
+        return "Display Check Watcher";
+    }
+}
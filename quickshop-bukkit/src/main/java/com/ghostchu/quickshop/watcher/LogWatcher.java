@@ -1,104 +1,254 @@
 package com.ghostchu.quickshop.watcher;
 
 import com.ghostchu.quickshop.QuickShop;
+import com.ghostchu.quickshop.common.util.JsonUtil;
+import com.ghostchu.quickshop.common.util.QuickExecutor;
 import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
 import org.apache.commons.compress.compressors.gzip.GzipParameters;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.*;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Iterator;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
-public class LogWatcher extends BukkitRunnable implements AutoCloseable {
+/**
+ * Write the logs to the log file on a background thread.
+ * <p>
+ * The callers only put the log into a bounded queue, the time formatting and the JSON encoding happen on the writer thread.
+ * The writer collects the lines into a direct buffer and writes it through a {@link FileChannel} once the buffer is full
+ * or nothing left to write. The log file will be moved away and compressed in background when it is too large.
+ */
+public class LogWatcher implements AutoCloseable {
     private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
     private static final DateTimeFormatter LOG_FILE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd").withZone(ZoneId.systemDefault());
-    private final Queue<String> logs = new ConcurrentLinkedQueue<>();
-
-    private PrintWriter printWriter = null;
+    private static final int QUEUE_CAPACITY = 16384;
+    private static final int BUFFER_SIZE = 256 * 1024;
+    private static final long ROTATE_RETRY_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+    private final QuickShop plugin;
+    private final File log;
+    private final Path archivePath;
+    private final long maxFileSize;
+    private final BlockingQueue<Entry> logs = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread writerThread;
+    private volatile boolean running = true;
+    private FileChannel channel;
+    private long nextRotateAttempt = 0;
 
     public LogWatcher(QuickShop plugin, File log) {
+        this.plugin = plugin;
+        this.log = log;
+        this.archivePath = plugin.getDataFolder().toPath().resolve("logs");
+        this.maxFileSize = (long) (plugin.getConfig().getDouble("logging.file-size") * 1024 * 1024);
+        this.writerThread = new Thread(this::runWriter, "QuickShop-LogWatcher");
+        this.writerThread.setDaemon(true);
+    }
+
+    /**
+     * Start the writer thread
+     */
+    public void start() {
+        writerThread.start();
+    }
+
+    /**
+     * Stop the writer thread, the logs in the queue will be written before closing
+     */
+    @Override
+    public void close() {
+        // Don't interrupt the writer, an interrupted FileChannel will be closed
+        running = false;
         try {
-            boolean deleteFailed = false;
-            if (!log.exists()) {
-                //noinspection ResultOfMethodCallIgnored
-                log.getParentFile().mkdirs();
-                //noinspection ResultOfMethodCallIgnored
-                log.createNewFile();
-            } else {
-                if ((log.length() / 1024f / 1024f) > plugin.getConfig().getDouble("logging.file-size")) {
-                    Path logPath = plugin.getDataFolder().toPath().resolve("logs");
-                    Files.createDirectories(logPath);
-                    //Find a available name
-                    Path targetPath;
-                    int i = 1;
-                    do {
-                        targetPath = logPath.resolve(ZonedDateTime.now().format(LOG_FILE_FORMATTER) + "-" + i + ".log.gz");
-                        i++;
-                    } while (Files.exists(targetPath));
-                    Files.createFile(targetPath);
-                    GzipParameters gzipParameters = new GzipParameters();
-                    gzipParameters.setFilename(log.getName());
-                    try (GzipCompressorOutputStream archiveOutputStream = new GzipCompressorOutputStream(new BufferedOutputStream(new FileOutputStream(targetPath.toFile())), gzipParameters)) {
-                        Files.copy(log.toPath(), archiveOutputStream);
-                        archiveOutputStream.finish();
-                        if (log.delete()) {
-                            //noinspection ResultOfMethodCallIgnored
-                            log.createNewFile();
-                        } else {
-                            deleteFailed = true;
-                        }
-                    }
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Log a line
+     *
+     * @param log The log line
+     */
+    public void log(@NotNull String log) {
+        offer(new Entry(System.currentTimeMillis(), log));
+    }
+
+    /**
+     * Log an event object, it will be encoded to JSON on the writer thread
+     *
+     * @param event The event object
+     */
+    public void logEvent(@NotNull Object event) {
+        offer(new Entry(System.currentTimeMillis(), event));
+    }
+
+    private void offer(@NotNull Entry entry) {
+        if (!running || !logs.offer(entry)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private void runWriter() {
+        try {
+            open();
+            while (running || !logs.isEmpty()) {
+                Entry entry;
+                try {
+                    entry = logs.poll(200, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                if (entry == null) {
+                    continue;
+                }
+                do {
+                    write(entry);
+                    entry = logs.poll();
+                } while (entry != null);
+                flush();
+                reportDropped();
+                if (maxFileSize > 0 && channel.size() > maxFileSize && System.currentTimeMillis() >= nextRotateAttempt) {
+                    rotate();
                 }
             }
-            FileWriter logFileWriter;
-            if (deleteFailed) {
-                //If could not delete, just override it
-                logFileWriter = new FileWriter(log, false);
-            } else {
-                //Otherwise append
-                logFileWriter = new FileWriter(log, true);
+        } catch (IOException | RuntimeException e) {
+            plugin.logger().error("Could not write the log file, the logs will not be written until restart!", e);
+        } finally {
+            // Stop accepting the logs, otherwise they fill the queue and nobody consumes them
+            running = false;
+            logs.clear();
+            try {
+                if (channel != null) {
+                    flush();
+                    channel.close();
+                }
+            } catch (IOException e) {
+                plugin.logger().warn("Failed to close the log file", e);
             }
-            printWriter = new PrintWriter(logFileWriter);
-        } catch (FileNotFoundException e) {
-            plugin.logger().error("Log file was not found!", e);
-        } catch (IOException e) {
-            plugin.logger().error("Could not create the log file!", e);
         }
     }
 
-    @Override
-    public void close() {
-        if (printWriter != null) {
-            printWriter.flush();
-            printWriter.close();
+    private void open() throws IOException {
+        if (!log.exists()) {
+            //noinspection ResultOfMethodCallIgnored
+            log.getParentFile().mkdirs();
+        } else if (maxFileSize > 0 && log.length() > maxFileSize) {
+            archive();
         }
+        channel = FileChannel.open(log.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
     }
 
-    public void log(@NotNull String log) {
-        logs.add("[" + DATETIME_FORMATTER.format(Instant.now()) + "] " + log);
+    private void rotate() throws IOException {
+        channel.close();
+        try {
+            archive();
+        } catch (IOException | RuntimeException e) {
+            // Keep writing to the current log file and try again later
+            nextRotateAttempt = System.currentTimeMillis() + ROTATE_RETRY_INTERVAL;
+            plugin.logger().warn("Failed to archive the log file, retrying later", e);
+        } finally {
+            channel = FileChannel.open(log.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
     }
 
-    @Override
-    public void run() {
-        if (printWriter == null) {
-            //Waiting for init
+    private void archive() throws IOException {
+        Files.createDirectories(archivePath);
+        //Find a available name
+        Path targetPath;
+        int i = 1;
+        do {
+            targetPath = archivePath.resolve(ZonedDateTime.now().format(LOG_FILE_FORMATTER) + "-" + i + ".log.gz");
+            i++;
+        } while (Files.exists(targetPath) || Files.exists(pendingPath(targetPath)));
+        // Moving is fast, compress it later
+        Path pendingPath = pendingPath(targetPath);
+        Files.move(log.toPath(), pendingPath, StandardCopyOption.REPLACE_EXISTING);
+        Path finalTargetPath = targetPath;
+        QuickExecutor.getCommonExecutor().submit(() -> compress(pendingPath, finalTargetPath));
+    }
+
+    @NotNull
+    private static Path pendingPath(@NotNull Path targetPath) {
+        String fileName = targetPath.getFileName().toString();
+        return targetPath.resolveSibling(fileName.substring(0, fileName.length() - ".gz".length()));
+    }
+
+    private void compress(@NotNull Path source, @NotNull Path target) {
+        GzipParameters gzipParameters = new GzipParameters();
+        gzipParameters.setFilename(log.getName());
+        try (OutputStream outputStream = new GzipCompressorOutputStream(new BufferedOutputStream(Files.newOutputStream(target)), gzipParameters)) {
+            Files.copy(source, outputStream);
+        } catch (IOException e) {
+            plugin.logger().warn("Failed to compress the log file " + source + ", keeping the uncompressed one", e);
+            return;
+        }
+        try {
+            Files.delete(source);
+        } catch (IOException e) {
+            plugin.logger().warn("Failed to delete the compressed log file " + source, e);
+        }
+    }
+
+    private void write(@NotNull Entry entry) throws IOException {
+        String content;
+        try {
+            content = entry.content() instanceof String str ? str : JsonUtil.getGson().toJson(entry.content());
+        } catch (RuntimeException e) {
+            // Skip the bad one only, don't stop the writer
+            plugin.logger().warn("Failed to encode the log entry {}, skipping", entry.content().getClass().getName(), e);
             return;
         }
-        Iterator<String> iterator = logs.iterator();
-        while (iterator.hasNext()) {
-            String log = iterator.next();
-            printWriter.println(log);
-            iterator.remove();
+        String line = "[" + DATETIME_FORMATTER.format(Instant.ofEpochMilli(entry.timestamp())) + "] " + content + System.lineSeparator();
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > buffer.remaining()) {
+            flush();
+            if (bytes.length > buffer.capacity()) {
+                writeFully(ByteBuffer.wrap(bytes));
+                return;
+            }
         }
-        printWriter.flush();
+        buffer.put(bytes);
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(@NotNull ByteBuffer byteBuffer) throws IOException {
+        while (byteBuffer.hasRemaining()) {
+            channel.write(byteBuffer);
+        }
+    }
+
+    private void reportDropped() {
+        long count = dropped.getAndSet(0);
+        if (count > 0) {
+            plugin.logger().warn("The log queue is full, {} logs have been dropped.", count);
+        }
+    }
+
+    private record Entry(long timestamp, @NotNull Object content) {
     }
 
 }
@@ -2,32 +2,176 @@ package com.ghostchu.quickshop.watcher;
 
 import com.ghostchu.quickshop.QuickShop;
 import com.ghostchu.quickshop.api.shop.Shop;
+import com.ghostchu.quickshop.util.paste.item.SubPasteItem;
+import com.ghostchu.quickshop.util.paste.util.HTMLTable;
+import com.ghostchu.quickshop.util.performance.TickBudget;
+import com.ghostchu.quickshop.util.performance.TickTimings;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.jetbrains.annotations.NotNull;
 
-import java.time.Instant;
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.concurrent.TimeUnit;
 
-public class SignUpdateWatcher extends BukkitRunnable {
-    private final Queue<Shop> signUpdateQueue = new LinkedList<>();
+/**
+ * Update the shop signs in background with a small per-tick budget.
+ * <p>
+ * The repeated updates of a shop are coalesced while it still waiting in the queue, and the shops that have players nearby
+ * are updated first. The budget shrinks when the server is lagging.
+ */
+public class SignUpdateWatcher extends BukkitRunnable implements SubPasteItem {
+    private static final long MAX_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long MIN_BUDGET_NANOS = TimeUnit.MICROSECONDS.toNanos(500);
+    // The shops within this range (in chunks) of any player will be updated first
+    private static final int NEARBY_RANGE = 4;
+    private static final TickTimings.Section TIMINGS = TickTimings.section("Sign Update Watcher");
+    private final QuickShop plugin;
+    // Main thread only
+    private final LinkedHashSet<Shop> nearbyQueue = new LinkedHashSet<>();
+    private final LinkedHashSet<Shop> signUpdateQueue = new LinkedHashSet<>();
+    private final TickBudget budget = new TickBudget(1, MIN_BUDGET_NANOS);
+    private long lastBudgetNanos = MAX_BUDGET_NANOS;
+    private long scheduled;
+    private long coalesced;
+    // Single writer, read by the metrics exporter
+    private volatile long updated;
+    private volatile long updateNanos;
+    private volatile int backlog;
+    private int peakBacklog;
+
+    public SignUpdateWatcher(@NotNull QuickShop plugin) {
+        this.plugin = plugin;
+        plugin.getPasteManager().register(plugin.getJavaPlugin(), this);
+    }
 
     @Override
     public void run() {
-        Instant startTime = Instant.now();
-        Instant endTime = startTime.plusMillis(50);
-        Shop shop = signUpdateQueue.poll();
-        while (shop != null && !shop.isDeleted() && !Instant.now().isAfter(endTime)) {
-            shop.setSignText(QuickShop.getInstance().text().findRelativeLanguages(shop.getOwner()));
-            shop = signUpdateQueue.poll();
+        // Always sample the tick length, even there is nothing to do
+        long budgetNanos = budget.nextBudgetNanos(MAX_BUDGET_NANOS);
+        if (nearbyQueue.isEmpty() && signUpdateQueue.isEmpty()) {
+            return;
+        }
+        long startTime = System.nanoTime();
+        lastBudgetNanos = budgetNanos;
+        long deadline = startTime + lastBudgetNanos;
+        int count = 0;
+        try {
+            count += update(nearbyQueue, deadline);
+            if (System.nanoTime() < deadline) {
+                count += update(signUpdateQueue, deadline);
+            }
+        } finally {
+            updated += count;
+            updateNanos += System.nanoTime() - startTime;
+            backlog = nearbyQueue.size() + signUpdateQueue.size();
+            TIMINGS.record(startTime);
         }
     }
 
+    private int update(@NotNull LinkedHashSet<Shop> queue, long deadline) {
+        int count = 0;
+        Iterator<Shop> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            Shop shop = iterator.next();
+            iterator.remove();
+            //Shop may be deleted or unloaded when waiting
+            if (shop.isDeleted() || !shop.isLoaded()) {
+                continue;
+            }
+            shop.setSignText(plugin.text().findRelativeLanguages(shop.getOwner()));
+            count++;
+            if (System.nanoTime() >= deadline) {
+                break;
+            }
+        }
+        return count;
+    }
+
     public void scheduleSignUpdate(@NotNull Shop shop) {
-        if (signUpdateQueue.contains(shop)) {
-            return; // Ignore if schedule too frequently
+        scheduled++;
+        if (nearbyQueue.contains(shop) || signUpdateQueue.contains(shop)) {
+            coalesced++;
+            return; // The pending update will render the latest status
+        }
+        if (hasNearbyPlayer(shop.getLocation())) {
+            nearbyQueue.add(shop);
+        } else {
+            signUpdateQueue.add(shop);
         }
-        signUpdateQueue.add(shop);
+        backlog = nearbyQueue.size() + signUpdateQueue.size();
+        peakBacklog = Math.max(peakBacklog, backlog);
+    }
+
+    private boolean hasNearbyPlayer(@NotNull Location location) {
+        World world = location.getWorld();
+        if (world == null) {
+            return false;
+        }
+        int chunkX = location.getBlockX() >> 4;
+        int chunkZ = location.getBlockZ() >> 4;
+        for (Player player : world.getPlayers()) {
+            Location playerLocation = player.getLocation();
+            if (Math.abs((playerLocation.getBlockX() >> 4) - chunkX) <= NEARBY_RANGE
+                    && Math.abs((playerLocation.getBlockZ() >> 4) - chunkZ) <= NEARBY_RANGE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Getting the amount of the shops waiting for sign update, safe to call from any thread
+     *
+     * @return The backlog size
+     */
+    public int getBacklog() {
+        return backlog;
     }
 
+    /**
+     * Getting the amount of the signs updated by this watcher
+     *
+     * @return The amount of updated signs
+     */
+    public long getUpdated() {
+        return updated;
+    }
+
+    /**
+     * Getting the time spent on updating the signs
+     *
+     * @return The time in nanoseconds
+     */
+    public long getUpdateNanos() {
+        return updateNanos;
+    }
+
+    @Override
+    public synchronized void cancel() throws IllegalStateException {
+        super.cancel();
+        plugin.getPasteManager().unregister(plugin.getJavaPlugin(), this);
+    }
+
+    @Override
+    public @NotNull String genBody() {
+        HTMLTable table = new HTMLTable(2, true);
+        table.insert("Backlog", String.valueOf(getBacklog()));
+        table.insert("Nearby Backlog", String.valueOf(nearbyQueue.size()));
+        table.insert("Peak Backlog", String.valueOf(peakBacklog));
+        table.insert("Scheduled", String.valueOf(scheduled));
+        table.insert("Coalesced", String.valueOf(coalesced));
+        table.insert("Updated", String.valueOf(updated));
+        table.insert("Average Update Cost (μs/shop)", String.valueOf(updated == 0 ? 0 : updateNanos / updated / 1000));
+        table.insert("Budget (ms/tick)", String.valueOf(lastBudgetNanos / 1000000.0D));
+        table.insert("Estimated MSPT", String.format("%.2f", budget.getEstimatedMspt()));
+        return table.render();
+    }
+
+    @Override
+    public @NotNull String getTitle() {
+        return "Sign Update Watcher";
+    }
 }